@@ -0,0 +1,49 @@
+package com.binancetrader.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.boot.autoconfigure.flyway.FlywayProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * 기동 시 Flyway 마이그레이션 (스프링 부트 기본 Flyway 빈 대체)
+ *
+ * AOT 빌드(-Pfast-startup)는 spring.flyway.enabled 조건을 빌드 시점에 고정하므로 실행 시
+ * --spring.flyway.enabled=false 를 줘도 기본 빈이 만들어지고, Flyway 는 DataSource 를 받는
+ * 순간 DB 에 접속한다. 여기서는 실행 시 값을 확인해 꺼져 있으면 DataSource 를 넘기지 않으므로
+ * AppCDS 학습 실행이 DB 없이 refresh 를 마칠 수 있다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.flyway", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(FlywayProperties.class)
+@Slf4j
+public class FlywayConfig {
+
+    @Bean
+    public Flyway flyway(DataSource dataSource, FlywayProperties properties) {
+        FluentConfiguration configuration = Flyway.configure()
+            .locations(properties.getLocations().toArray(String[]::new))
+            .baselineOnMigrate(properties.isBaselineOnMigrate())
+            .baselineVersion(properties.getBaselineVersion());
+        if (properties.isEnabled()) {
+            configuration.dataSource(dataSource);
+        }
+        return configuration.load();
+    }
+
+    @Bean
+    public FlywayMigrationInitializer flywayInitializer(Flyway flyway, FlywayProperties properties) {
+        if (properties.isEnabled()) {
+            return new FlywayMigrationInitializer(flyway);
+        }
+        return new FlywayMigrationInitializer(flyway,
+            skipped -> log.info("spring.flyway.enabled=false - 스키마 마이그레이션 생략"));
+    }
+}
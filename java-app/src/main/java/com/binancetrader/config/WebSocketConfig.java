@@ -13,7 +13,9 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // 클라이언트로 메시지를 보낼 때 사용할 prefix
-        config.enableSimpleBroker("/topic");
+        config.enableSimpleBroker("/topic", "/queue");
+        // 인증된 사용자 본인에게만 보내는 목적지 prefix (/user/queue/account 등)
+        config.setUserDestinationPrefix("/user");
         // 클라이언트에서 서버로 메시지를 보낼 때 사용할 prefix
         config.setApplicationDestinationPrefixes("/app");
     }
@@ -1,8 +1,18 @@
 package com.binancetrader.controller;
 
+import com.binancetrader.service.ArbitrageScannerService;
 import com.binancetrader.service.BinanceApiService;
+import com.binancetrader.service.KlineBackfillService;
+import com.binancetrader.service.MarketSnapshotService;
+import com.binancetrader.service.PriceHistoryService;
+import com.binancetrader.service.StartupMetricsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -10,30 +20,39 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
+import java.time.YearMonth;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/market")
+@Lazy(false)
 @RequiredArgsConstructor
 @Slf4j
 @CrossOrigin(origins = "*")
 public class MarketController {
     
     private final BinanceApiService binanceApiService;
+    private final MarketSnapshotService marketSnapshotService;
+    private final KlineBackfillService klineBackfillService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final StartupMetricsService startupMetricsService;
+    private final ArbitrageScannerService arbitrageScannerService;
+    private final PriceHistoryService priceHistoryService;
     
     /**
-     * 24시간 가격 변동 통계 조회
+     * 24시간 가격 변동 통계 조회 (스냅샷, ETag 지원)
      * GET /api/market/24hr-ticker
      */
     @GetMapping("/24hr-ticker")
-    public Mono<ResponseEntity<List<Map<String, Object>>>> get24hrTicker() {
-        log.info("24시간 티커 정보 요청");
+    public Mono<ResponseEntity<byte[]>> get24hrTicker(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.debug("24시간 티커 정보 요청");
         
-        return binanceApiService.get24hrTicker()
-            .map(ResponseEntity::ok)
+        return marketSnapshotService.snapshot()
+            .map(snapshot -> serveSnapshot(snapshot.getTicker24hr(), ifNoneMatch, acceptEncoding))
             .onErrorReturn(ResponseEntity.status(500).build());
     }
     
@@ -51,46 +70,122 @@ public class MarketController {
     }
     
     /**
-     * 주요 암호화폐 목록의 가격 정보
-     * GET /api/market/major-symbols
+     * 여러 심볼의 가격 일괄 조회
+     * GET /api/market/prices?symbols=BTCUSDT,ETHUSDT
      */
-    @GetMapping("/major-symbols")
-    public Mono<ResponseEntity<Map<String, Object>>> getMajorSymbolsPrices() {
-        log.info("주요 암호화폐 가격 정보 요청");
+    @GetMapping("/prices")
+    public Mono<ResponseEntity<Map<String, Object>>> getSymbolPrices(@RequestParam List<String> symbols) {
+        log.debug("심볼 {}개 가격 일괄 조회 요청", symbols.size());
         
-        String[] majorSymbols = {
-            "BTCUSDT", "ETHUSDT", "BNBUSDT", "ADAUSDT", 
-            "SOLUSDT", "DOTUSDT", "MATICUSDT", "AVAXUSDT", "LINKUSDT"
-        };
+        if (symbols.isEmpty()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", "symbols 파라미터가 필요합니다");
+            return Mono.just(ResponseEntity.badRequest().body(errorResponse));
+        }
         
-        return binanceApiService.get24hrTicker()
-            .map(allTickers -> {
-                Map<String, Object> result = new java.util.HashMap<>();
-                
-                for (Map<String, Object> ticker : allTickers) {
-                    String symbol = (String) ticker.get("symbol");
-                    if (java.util.Arrays.asList(majorSymbols).contains(symbol)) {
-                        result.put(symbol, ticker);
-                    }
-                }
-                
-                return ResponseEntity.ok(result);
+        return marketSnapshotService.getPrices(symbols)
+            .map(ResponseEntity::ok)
+            .onErrorResume(IllegalArgumentException.class, e -> {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("message", e.getMessage());
+                return Mono.just(ResponseEntity.badRequest().body(errorResponse));
             })
             .onErrorReturn(ResponseEntity.status(500).build());
     }
     
+    /**
+     * 주요 암호화폐 목록의 가격 정보 (스냅샷, ETag 지원)
+     * GET /api/market/major-symbols
+     */
+    @GetMapping("/major-symbols")
+    public Mono<ResponseEntity<byte[]>> getMajorSymbolsPrices(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.debug("주요 암호화폐 가격 정보 요청");
+        
+        return marketSnapshotService.snapshot()
+            .map(snapshot -> serveSnapshot(snapshot.getMajorSymbols(), ifNoneMatch, acceptEncoding))
+            .onErrorReturn(ResponseEntity.status(500).build());
+    }
+    
+    /**
+     * 최근 가격 이력 (LTTB 다운샘플링)
+     * GET /api/market/history/{symbol}?points=500&from=...&to=...
+     */
+    @GetMapping("/history/{symbol}")
+    public ResponseEntity<Map<String, Object>> getPriceHistory(
+            @PathVariable String symbol,
+            @RequestParam(defaultValue = "500") int points,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to) {
+        try {
+            return ResponseEntity.ok(priceHistoryService.getHistory(symbol, points, from, to));
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(404).body(errorResponse);
+        }
+    }
+    
+    /**
+     * 1분봉 과거 데이터 백필 시작
+     * POST /api/market/klines/backfill  {"symbols": ["BTCUSDT"], "from": "2024-01", "to": "2024-06"}
+     */
+    @PostMapping("/klines/backfill")
+    public ResponseEntity<Map<String, Object>> startKlineBackfill(@RequestBody Map<String, Object> request) {
+        log.info("캔들 백필 요청: {}", request);
+        
+        try {
+            @SuppressWarnings("unchecked")
+            List<String> symbols = (List<String>) request.get("symbols");
+            if (symbols == null || symbols.isEmpty() || request.get("from") == null || request.get("to") == null) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("message", "symbols, from, to 값이 필요합니다");
+                return ResponseEntity.badRequest().body(errorResponse);
+            }
+            
+            KlineBackfillService.BackfillJob job = klineBackfillService.start(symbols,
+                YearMonth.parse(request.get("from").toString()), YearMonth.parse(request.get("to").toString()));
+            return ResponseEntity.accepted().body(job.toMap());
+        } catch (Exception e) {
+            log.error("캔들 백필 시작 실패: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+    
+    /**
+     * 백필 작업 진행 상황
+     * GET /api/market/klines/backfill/{jobId}
+     */
+    @GetMapping("/klines/backfill/{jobId}")
+    public ResponseEntity<Map<String, Object>> getKlineBackfill(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(klineBackfillService.getJob(jobId).toMap());
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(404).body(errorResponse);
+        }
+    }
+    
+    /**
+     * 삼각 차익 탐색 상태와 최근 기회 (실시간 기회는 /topic/arbitrage 구독)
+     * GET /api/market/arbitrage
+     */
+    @GetMapping("/arbitrage")
+    public ResponseEntity<Map<String, Object>> getArbitrageStatus() {
+        return ResponseEntity.ok(arbitrageScannerService.getStatus());
+    }
+    
     /**
      * WebSocket을 통한 실시간 가격 데이터 전송
      * 5초마다 실행
      */
     @Scheduled(fixedRate = 5000)
     public void sendRealTimeMarketData() {
-        String[] majorSymbols = {
-            "BTCUSDT", "ETHUSDT", "BNBUSDT", "ADAUSDT", 
-            "SOLUSDT", "DOTUSDT", "MATICUSDT", "AVAXUSDT", "LINKUSDT"
-        };
-        
-        for (String symbol : majorSymbols) {
+        for (String symbol : MarketSnapshotService.MAJOR_SYMBOLS) {
             binanceApiService.getSymbolPrice(symbol)
                 .subscribe(
                     priceData -> {
@@ -101,6 +196,7 @@ public class MarketController {
                             
                             // WebSocket을 통해 클라이언트에 전송
                             messagingTemplate.convertAndSend("/topic/market/" + symbol, marketData);
+                            startupMetricsService.recordTickPublished();
                             
                             log.debug("실시간 가격 데이터 전송: {} = ${}", symbol, priceData.get("price"));
                         } catch (Exception e) {
@@ -112,6 +208,53 @@ public class MarketController {
         }
     }
     
+    /**
+     * 미리 직렬화된 스냅샷 본문 응답
+     * If-None-Match 가 현재 버전과 같으면 본문 없이 304, gzip 을 받는 클라이언트에는 압축본을 그대로 전송
+     */
+    private ResponseEntity<byte[]> serveSnapshot(MarketSnapshotService.SerializedBody body,
+                                                 String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = body.getGzipBody() != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        String identityEtag = body.getEtag();
+        String gzipEtag = identityEtag.substring(0, identityEtag.length() - 1) + "-gzip\"";
+        String etag = gzip ? gzipEtag : identityEtag;
+        
+        if (etagMatches(ifNoneMatch, identityEtag, gzipEtag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .build();
+        }
+        
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        
+        return builder.body(gzip ? body.getGzipBody() : body.getBody());
+    }
+    
+    private static boolean etagMatches(String ifNoneMatch, String identityEtag, String gzipEtag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if ("*".equals(candidate) || identityEtag.equals(candidate) || gzipEtag.equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     /**
      * WebSocket 메시지 처리
      */
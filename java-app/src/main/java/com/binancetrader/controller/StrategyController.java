@@ -0,0 +1,93 @@
+package com.binancetrader.controller;
+
+import com.binancetrader.model.StrategySchedule;
+import com.binancetrader.service.StrategyRuntimeService;
+import com.binancetrader.service.StrategySchedulerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/strategy")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class StrategyController {
+    
+    private final StrategySchedulerService strategySchedulerService;
+    private final StrategyRuntimeService strategyRuntimeService;
+    
+    /**
+     * 전략 반복 실행 등록 (DCA, 그리드)
+     * POST /api/strategy/{strategyId}/schedule
+     */
+    @PostMapping("/{strategyId}/schedule")
+    public ResponseEntity<Map<String, Object>> scheduleStrategy(
+            @PathVariable Long strategyId,
+            @RequestBody Map<String, Long> request) {
+        
+        log.info("전략 반복 실행 등록 요청: {}", strategyId);
+        
+        Long intervalSeconds = request.get("intervalSeconds");
+        if (intervalSeconds == null) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", "intervalSeconds 값이 필요합니다");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        
+        try {
+            StrategySchedule schedule = strategySchedulerService.schedule(strategyId, intervalSeconds);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("strategyId", strategyId);
+            response.put("intervalSeconds", schedule.getIntervalSeconds());
+            response.put("nextRunAt", schedule.getNextRunAt());
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("전략 반복 실행 등록 실패: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+    
+    /**
+     * 전략 반복 실행 해제
+     * DELETE /api/strategy/{strategyId}/schedule
+     */
+    @DeleteMapping("/{strategyId}/schedule")
+    public ResponseEntity<Map<String, Object>> unscheduleStrategy(@PathVariable Long strategyId) {
+        log.info("전략 반복 실행 해제 요청: {}", strategyId);
+        
+        try {
+            strategySchedulerService.unschedule(strategyId);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "반복 실행이 해제되었습니다");
+            response.put("success", true);
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("전략 반복 실행 해제 실패: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(404).body(errorResponse);
+        }
+    }
+    
+    /**
+     * 전략 런타임 샤드 현황
+     * GET /api/strategy/runtime
+     */
+    @GetMapping("/runtime")
+    public ResponseEntity<Map<String, Object>> getRuntimeStatus() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("shards", strategyRuntimeService.getShardStatus());
+        return ResponseEntity.ok(response);
+    }
+}
\ No newline at end of file
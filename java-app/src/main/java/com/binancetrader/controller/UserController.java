@@ -1,7 +1,10 @@
 package com.binancetrader.controller;
 
 import com.binancetrader.model.User;
+import com.binancetrader.service.AccountStateService;
 import com.binancetrader.service.BinanceApiService;
+import com.binancetrader.service.PnlReportService;
+import com.binancetrader.service.TradeHistoryImportService;
 import com.binancetrader.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,6 +13,7 @@ import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -21,6 +25,9 @@ public class UserController {
     
     private final UserService userService;
     private final BinanceApiService binanceApiService;
+    private final AccountStateService accountStateService;
+    private final TradeHistoryImportService tradeHistoryImportService;
+    private final PnlReportService pnlReportService;
     
     /**
      * 사용자 정보 조회
@@ -97,6 +104,37 @@ public class UserController {
             .onErrorReturn(ResponseEntity.status(500).body(Map.of("message", "API 키 검증 중 오류가 발생했습니다")));
     }
     
+    /**
+     * 사용자 활성화 상태 변경 (전략 런타임 샤드 배정에 반영)
+     * PUT /api/user/{userId}/active  {"isActive": true}
+     */
+    @PutMapping("/{userId}/active")
+    public ResponseEntity<Map<String, Object>> updateActiveStatus(
+            @PathVariable Long userId,
+            @RequestBody Map<String, Boolean> request) {
+        
+        Boolean isActive = request.get("isActive");
+        if (isActive == null) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", "isActive 값이 필요합니다");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        
+        try {
+            userService.updateActiveStatus(userId, isActive);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("userId", userId);
+            response.put("isActive", isActive);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("사용자 활성화 상태 변경 실패: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(404).body(errorResponse);
+        }
+    }
+    
     /**
      * 계정 정보 조회 (바이낸스)
      * GET /api/user/{userId}/account
@@ -125,4 +163,96 @@ public class UserController {
             return Mono.just(ResponseEntity.status(404).body(errorResponse));
         }
     }
+    
+    /**
+     * 0 이 아닌 잔고만 조회 (변경분은 로그인한 사용자 본인의 /user/queue/account 로 전송)
+     * GET /api/user/{userId}/balances
+     */
+    @GetMapping("/{userId}/balances")
+    public Mono<ResponseEntity<Map<String, Object>>> getBalances(@PathVariable Long userId) {
+        try {
+            User user = userService.findById(userId);
+            
+            if (user.getBinanceApiKey() == null || user.getBinanceSecretKey() == null) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("message", "API credentials not configured");
+                return Mono.just(ResponseEntity.badRequest().body(errorResponse));
+            }
+            
+            return accountStateService.getBalances(user)
+                .map(ResponseEntity::ok)
+                .onErrorReturn(ResponseEntity.status(500).body(Map.of("message", "잔고 조회 실패")));
+                
+        } catch (Exception e) {
+            log.error("잔고 조회 실패: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", "사용자를 찾을 수 없습니다");
+            return Mono.just(ResponseEntity.status(404).body(errorResponse));
+        }
+    }
+    
+    /**
+     * 체결 내역 가져오기 시작 (바이낸스 myTrades → fills)
+     * POST /api/user/{userId}/trades/import  {"symbols": ["BTCUSDT", "ETHUSDT"]}
+     */
+    @PostMapping("/{userId}/trades/import")
+    public ResponseEntity<Map<String, Object>> startTradeImport(
+            @PathVariable Long userId,
+            @RequestBody Map<String, List<String>> request) {
+        
+        log.info("체결 내역 가져오기 요청: {} {}", userId, request);
+        
+        List<String> symbols = request.get("symbols");
+        if (symbols == null || symbols.isEmpty()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", "symbols 값이 필요합니다");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        
+        try {
+            return ResponseEntity.accepted().body(tradeHistoryImportService.start(userId, symbols).toMap());
+        } catch (Exception e) {
+            log.error("체결 내역 가져오기 시작 실패: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+    
+    /**
+     * 체결 내역 가져오기 진행 상황
+     * GET /api/user/{userId}/trades/import/{jobId}
+     */
+    @GetMapping("/{userId}/trades/import/{jobId}")
+    public ResponseEntity<Map<String, Object>> getTradeImport(@PathVariable Long userId, @PathVariable String jobId) {
+        try {
+            TradeHistoryImportService.ImportJob job = tradeHistoryImportService.getJob(jobId);
+            if (!job.getUserId().equals(userId)) {
+                throw new RuntimeException("가져오기 작업을 찾을 수 없습니다: " + jobId);
+            }
+            return ResponseEntity.ok(job.toMap());
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(404).body(errorResponse);
+        }
+    }
+    
+    /**
+     * 실현 손익 보고서 (FIFO 원가, 수수료 자산별 합계)
+     * GET /api/user/{userId}/pnl?symbol=BTCUSDT
+     */
+    @GetMapping("/{userId}/pnl")
+    public ResponseEntity<Map<String, Object>> getPnlReport(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String symbol) {
+        try {
+            return ResponseEntity.ok(pnlReportService.generate(userId, symbol));
+        } catch (Exception e) {
+            log.error("손익 보고서 생성 실패: {}", e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", "손익 보고서 생성 실패");
+            return ResponseEntity.status(500).body(errorResponse);
+        }
+    }
 }
\ No newline at end of file
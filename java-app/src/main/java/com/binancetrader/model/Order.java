@@ -32,6 +32,9 @@ public class Order {
     @Column(name = "binance_order_id")
     private String binanceOrderId;
     
+    @Column(name = "client_order_id", length = 36, unique = true)
+    private String clientOrderId;
+    
     @Column(nullable = false)
     private String symbol; // BTCUSDT
     
@@ -82,6 +85,22 @@ public class Order {
     }
     
     public enum OrderStatus {
-        NEW, PARTIALLY_FILLED, FILLED, CANCELED, EXPIRED, REJECTED
+        NEW, PARTIALLY_FILLED, FILLED, CANCELED, EXPIRED, REJECTED;
+        
+        /**
+         * 바이낸스 주문 상태 변환 (모르는 상태는 null)
+         * 접수/취소 대기 중인 주문은 아직 미체결로, 자기 체결 방지로 만료된 주문은 EXPIRED 로 본다
+         */
+        public static OrderStatus fromBinance(String status) {
+            return switch (status) {
+                case "NEW", "PENDING_NEW", "PENDING_CANCEL" -> NEW;
+                case "PARTIALLY_FILLED" -> PARTIALLY_FILLED;
+                case "FILLED" -> FILLED;
+                case "CANCELED" -> CANCELED;
+                case "EXPIRED", "EXPIRED_IN_MATCH" -> EXPIRED;
+                case "REJECTED" -> REJECTED;
+                default -> null;
+            };
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.binancetrader.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "strategy_schedules")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StrategySchedule {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "strategy_id", nullable = false, unique = true)
+    private TradingStrategy strategy;
+    
+    @Column(name = "interval_seconds", nullable = false)
+    private Long intervalSeconds;
+    
+    @Column(name = "next_run_at", nullable = false)
+    private LocalDateTime nextRunAt;
+    
+    @Column(name = "last_run_at")
+    private LocalDateTime lastRunAt;
+    
+    @Column(name = "run_count", nullable = false)
+    private Long runCount = 0L;
+    
+    @Column(name = "is_active", nullable = false)
+    private Boolean isActive = true;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -23,15 +23,39 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     Optional<Order> findByBinanceOrderId(String binanceOrderId);
     
+    Optional<Order> findByClientOrderId(String clientOrderId);
+    
     @Query("SELECT o FROM Order o WHERE o.user.id = :userId AND o.createdAt >= :startDate")
     List<Order> findRecentOrdersByUser(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate);
     
     @Query("SELECT o FROM Order o WHERE o.user.id = :userId AND o.symbol = :symbol ORDER BY o.createdAt DESC")
     List<Order> findByUserIdAndSymbolOrderByCreatedAtDesc(@Param("userId") Long userId, @Param("symbol") String symbol);
     
+    /**
+     * 전략의 미체결 주문 (바이낸스가 접수한 NEW / PARTIALLY_FILLED)
+     */
+    default List<Order> findOpenOrdersOfStrategy(Long strategyId, Order.OrderSide side, Order.OrderType type) {
+        return findOrdersOfStrategyByStatus(strategyId, side, type,
+            List.of(Order.OrderStatus.NEW, Order.OrderStatus.PARTIALLY_FILLED));
+    }
+    
+    @Query("SELECT o FROM Order o WHERE o.strategy.id = :strategyId AND o.side = :side AND o.type = :type " +
+           "AND o.binanceOrderId IS NOT NULL AND o.status IN :statuses ORDER BY o.createdAt")
+    List<Order> findOrdersOfStrategyByStatus(@Param("strategyId") Long strategyId,
+                                             @Param("side") Order.OrderSide side,
+                                             @Param("type") Order.OrderType type,
+                                             @Param("statuses") List<Order.OrderStatus> statuses);
+    
     @Query("SELECT o FROM Order o WHERE o.status = :status")
     List<Order> findByStatus(@Param("status") Order.OrderStatus status);
     
+    /**
+     * 전송 결과를 확인하지 못한 주문 (clientOrderId 로 기록했지만 바이낸스 주문 ID 가 없는 NEW)
+     */
+    @Query("SELECT o FROM Order o JOIN FETCH o.user WHERE o.status = :status AND o.binanceOrderId IS NULL " +
+           "AND o.clientOrderId IS NOT NULL AND o.updatedAt < :before ORDER BY o.updatedAt")
+    List<Order> findUnconfirmedOrders(@Param("status") Order.OrderStatus status, @Param("before") LocalDateTime before);
+    
     @Query("SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId AND o.createdAt >= :startDate")
     long countTodaysOrdersByUser(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate);
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.binancetrader.repository;
+
+import com.binancetrader.model.StrategySchedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StrategyScheduleRepository extends JpaRepository<StrategySchedule, Long> {
+    
+    @Query("SELECT s FROM StrategySchedule s JOIN FETCH s.strategy st JOIN FETCH st.user WHERE s.isActive = true")
+    List<StrategySchedule> findAllActiveWithStrategy();
+    
+    @Query("SELECT s FROM StrategySchedule s JOIN FETCH s.strategy st JOIN FETCH st.user WHERE s.id = :id")
+    Optional<StrategySchedule> findByIdWithStrategy(@Param("id") Long id);
+    
+    Optional<StrategySchedule> findByStrategyId(Long strategyId);
+    
+    /**
+     * 실행 결과 기록 - 실행 중에 해제되거나 주기가 바뀌었으면 갱신하지 않고 0 반환
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE StrategySchedule s SET s.nextRunAt = :nextRunAt, s.lastRunAt = :lastRunAt, "
+        + "s.runCount = s.runCount + 1, s.updatedAt = :lastRunAt "
+        + "WHERE s.id = :id AND s.isActive = true AND s.intervalSeconds = :intervalSeconds AND s.nextRunAt = :scheduledAt")
+    int recordRun(@Param("id") Long id,
+                  @Param("intervalSeconds") Long intervalSeconds,
+                  @Param("scheduledAt") LocalDateTime scheduledAt,
+                  @Param("nextRunAt") LocalDateTime nextRunAt,
+                  @Param("lastRunAt") LocalDateTime lastRunAt);
+}
@@ -7,7 +7,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TradingStrategyRepository extends JpaRepository<TradingStrategy, Long> {
@@ -25,5 +27,27 @@ public interface TradingStrategyRepository extends JpaRepository<TradingStrategy
     @Query("SELECT ts FROM TradingStrategy ts WHERE ts.user.id = :userId AND ts.symbol = :symbol")
     List<TradingStrategy> findByUserIdAndSymbol(@Param("userId") Long userId, @Param("symbol") String symbol);
     
+    @Query("SELECT ts FROM TradingStrategy ts JOIN FETCH ts.user WHERE ts.id = :id")
+    Optional<TradingStrategy> findByIdWithUser(@Param("id") Long id);
+    
+    @Query("SELECT ts FROM TradingStrategy ts JOIN FETCH ts.user u WHERE ts.isActive = true AND u.isActive = true " +
+           "AND u.binanceApiKey IS NOT NULL AND u.binanceSecretKey IS NOT NULL")
+    List<TradingStrategy> findAllActiveStrategiesOfActiveUsers();
+    
+    @Query("SELECT ts FROM TradingStrategy ts JOIN FETCH ts.user u WHERE u.id = :userId AND ts.isActive = true " +
+           "AND u.isActive = true AND u.binanceApiKey IS NOT NULL AND u.binanceSecretKey IS NOT NULL")
+    List<TradingStrategy> findActiveStrategiesOfActiveUser(@Param("userId") Long userId);
+    
+    @Query("SELECT COUNT(ts) FROM TradingStrategy ts JOIN ts.user u WHERE ts.isActive = true AND u.isActive = true " +
+           "AND u.binanceApiKey IS NOT NULL AND u.binanceSecretKey IS NOT NULL")
+    long countActiveStrategiesOfActiveUsers();
+    
+    /**
+     * 전략 또는 사용자(활성/API 키) 정보가 since 이후 바뀐 사용자 ID
+     */
+    @Query("SELECT DISTINCT u.id FROM TradingStrategy ts JOIN ts.user u " +
+           "WHERE ts.createdAt > :since OR ts.updatedAt > :since OR u.updatedAt > :since")
+    List<Long> findUserIdsWithStrategyChangesSince(@Param("since") LocalDateTime since);
+    
     long countByUserIdAndIsActive(Long userId, Boolean isActive);
 }
\ No newline at end of file
@@ -0,0 +1,234 @@
+package com.binancetrader.service;
+
+import com.binancetrader.model.User;
+import com.binancetrader.repository.UserRepository;
+import com.binancetrader.util.BalanceTable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 계정 잔고 상태 서비스
+ *
+ * 사용자별로 0 이 아닌 자산만 담은 잔고 테이블을 유지하고, 변경된 자산만
+ * /user/queue/account 로 전송한다. 구독 대상 사용자는 목적지가 아니라 접속한
+ * 인증 주체(사용자 이름)로 정하므로 다른 사용자의 잔고는 구독할 수 없다.
+ * 바이낸스 계정 조회는 구독 중인 사용자에 대해서만 서버에서 주기적으로 수행하고,
+ * 구독자가 없는 테이블은 조회 주기가 지나면 버린다.
+ */
+@Service
+@Lazy(false)
+@RequiredArgsConstructor
+@Slf4j
+public class AccountStateService {
+
+    /** convertAndSendToUser 에 쓰는 목적지 (클라이언트는 /user/queue/account 를 구독) */
+    private static final String ACCOUNT_QUEUE = "/queue/account";
+    private static final String ACCOUNT_SUBSCRIPTION = "/user" + ACCOUNT_QUEUE;
+
+    private final BinanceApiService binanceApiService;
+    private final UserRepository userRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Value("${account.poll-ms:10000}")
+    private long pollMs;
+
+    private final Map<Long, BalanceTable> tables = new ConcurrentHashMap<>();
+    /** 사용자 ID → 마지막으로 바이낸스 잔고를 적용한 시각 (ms) */
+    private final Map<Long, Long> refreshedAt = new ConcurrentHashMap<>();
+    /** 세션 ID → (구독 ID → 사용자 ID) */
+    private final Map<String, Map<String, Long>> subscriptions = new ConcurrentHashMap<>();
+
+    /**
+     * 현재 잔고 조회 - 테이블이 없거나 조회 주기보다 오래됐으면 바이낸스에서 다시 불러온다
+     */
+    public Mono<Map<String, Object>> getBalances(User user) {
+        BalanceTable table = tables.get(user.getId());
+        if (table != null && isFresh(user.getId(), System.currentTimeMillis())) {
+            return Mono.just(fullPayload(user.getId(), table));
+        }
+        return refresh(user).map(delta -> fullPayload(user.getId(),
+            tables.computeIfAbsent(user.getId(), id -> new BalanceTable())));
+    }
+
+    /**
+     * 전체 계정 조회 결과를 적용하고 변경분 전송
+     */
+    public Mono<BalanceTable.Delta> refresh(User user) {
+        return binanceApiService.getAccountInfo(user.getBinanceApiKey(), user.getBinanceSecretKey())
+            .map(accountInfo -> {
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> balances = (List<Map<String, Object>>) accountInfo.get("balances");
+                if (balances == null) {
+                    throw new IllegalStateException("계정 응답에 balances 가 없습니다");
+                }
+                return applySnapshot(user, parseBalances(balances));
+            });
+    }
+
+    /**
+     * 전체 잔고 적용 - 목록에 없는 자산은 0 으로 간주
+     */
+    public BalanceTable.Delta applySnapshot(User user, Map<String, long[]> balances) {
+        BalanceTable.Delta delta = tables.computeIfAbsent(user.getId(), id -> new BalanceTable())
+            .applySnapshot(balances);
+        refreshedAt.put(user.getId(), System.currentTimeMillis());
+        publish(user, delta);
+        return delta;
+    }
+
+    /**
+     * 구독 중인 사용자의 계정을 주기적으로 조회하고, 구독자 없이 오래된 테이블은 버린다
+     */
+    @Scheduled(fixedDelayString = "${account.poll-ms:10000}")
+    public void pollSubscribedAccounts() {
+        Set<Long> userIds = subscribedUserIds();
+        long now = System.currentTimeMillis();
+        for (Long userId : tables.keySet()) {
+            if (!userIds.contains(userId) && !isFresh(userId, now)) {
+                tables.remove(userId);
+                refreshedAt.remove(userId);
+            }
+        }
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        for (User user : userRepository.findAllById(userIds)) {
+            if (user.getBinanceApiKey() == null || user.getBinanceSecretKey() == null) {
+                continue;
+            }
+            refresh(user).subscribe(
+                delta -> log.debug("사용자 {} 잔고 갱신: 변경 {}건, 삭제 {}건", user.getId(), delta.getChanged().size(), delta.getRemoved().size()),
+                error -> log.error("사용자 {} 잔고 갱신 실패: {}", user.getId(), error.getMessage())
+            );
+        }
+    }
+
+    /**
+     * 구독 시작 - 접속한 인증 주체의 사용자로 구독을 등록하고 현재 잔고 전체를 먼저 보낸다
+     */
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Principal principal = event.getUser();
+        if (!ACCOUNT_SUBSCRIPTION.equals(accessor.getDestination()) || principal == null) {
+            return;
+        }
+
+        User user = userRepository.findByUsername(principal.getName()).orElse(null);
+        if (user == null || user.getBinanceApiKey() == null || user.getBinanceSecretKey() == null) {
+            log.debug("잔고 구독 무시 - API 키가 있는 사용자가 아님: {}", principal.getName());
+            return;
+        }
+
+        subscriptions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+            .put(accessor.getSubscriptionId(), user.getId());
+
+        BalanceTable table = tables.get(user.getId());
+        if (table != null) {
+            messagingTemplate.convertAndSendToUser(user.getUsername(), ACCOUNT_QUEUE, fullPayload(user.getId(), table));
+        } else {
+            refresh(user).subscribe(
+                delta -> { },
+                error -> log.error("사용자 {} 초기 잔고 조회 실패: {}", user.getId(), error.getMessage())
+            );
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, Long> sessionSubscriptions = subscriptions.get(accessor.getSessionId());
+        if (sessionSubscriptions != null) {
+            sessionSubscriptions.remove(accessor.getSubscriptionId());
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        subscriptions.remove(event.getSessionId());
+    }
+
+    private Set<Long> subscribedUserIds() {
+        Set<Long> userIds = new HashSet<>();
+        for (Map<String, Long> sessionSubscriptions : subscriptions.values()) {
+            userIds.addAll(sessionSubscriptions.values());
+        }
+        return userIds;
+    }
+
+    private boolean isFresh(Long userId, long now) {
+        Long refreshed = refreshedAt.get(userId);
+        return refreshed != null && now - refreshed < pollMs;
+    }
+
+    private void publish(User user, BalanceTable.Delta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        messagingTemplate.convertAndSendToUser(user.getUsername(), ACCOUNT_QUEUE,
+            toPayload(user.getId(), delta.getVersion(), delta.getChanged(), delta.getRemoved(), false));
+    }
+
+    private Map<String, Object> fullPayload(Long userId, BalanceTable table) {
+        return toPayload(userId, table.getVersion(), table.snapshot(), List.of(), true);
+    }
+
+    private Map<String, Object> toPayload(Long userId, long version, Map<String, long[]> balances,
+                                          List<String> removed, boolean full) {
+        Map<String, Object> assets = new LinkedHashMap<>(balances.size() * 2);
+        for (Map.Entry<String, long[]> entry : balances.entrySet()) {
+            Map<String, String> balance = new HashMap<>(4);
+            balance.put("free", BalanceTable.toPlainString(entry.getValue()[0]));
+            balance.put("locked", BalanceTable.toPlainString(entry.getValue()[1]));
+            assets.put(entry.getKey(), balance);
+        }
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("userId", userId);
+        payload.put("version", version);
+        payload.put("full", full);
+        payload.put("balances", assets);
+        if (!removed.isEmpty()) {
+            payload.put("removed", removed);
+        }
+        payload.put("timestamp", System.currentTimeMillis());
+        return payload;
+    }
+
+    private Map<String, long[]> parseBalances(List<Map<String, Object>> balances) {
+        Map<String, long[]> parsed = new HashMap<>(balances.size() * 2);
+        for (Map<String, Object> balance : balances) {
+            String asset = String.valueOf(balance.get("asset"));
+            try {
+                parsed.put(asset, new long[]{
+                    BalanceTable.toFixed(String.valueOf(balance.get("free"))),
+                    BalanceTable.toFixed(String.valueOf(balance.get("locked")))
+                });
+            } catch (ArithmeticException e) {
+                log.warn("잔고 값이 고정소수점 범위를 벗어나 건너뜀: {}", asset);
+            }
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,334 @@
+package com.binancetrader.service;
+
+import com.binancetrader.util.TriangularArbitrageGraph;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 전체 시장 최우선 호가(!bookTicker) 스트림 기반 삼각 차익 탐색
+ *
+ * 스트림 수신 스레드 하나가 파싱과 그래프 갱신을 모두 처리하고, 기회 발행은 별도 스레드로 넘긴다.
+ * 발견된 기회는 /topic/arbitrage 로 전송되며 메시지 수신부터 탐지까지 걸린 시간을 함께 담는다.
+ */
+@Service
+@Lazy(false)
+@RequiredArgsConstructor
+@Slf4j
+public class ArbitrageScannerService {
+
+    private static final String ARBITRAGE_TOPIC = "/topic/arbitrage";
+    private static final int RECENT_OPPORTUNITIES = 50;
+
+    private final BinanceApiService binanceApiService;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Value("${binance.api.stream-url}")
+    private String streamUrl;
+
+    @Value("${arbitrage.enabled:false}")
+    private boolean enabled;
+
+    @Value("${arbitrage.stream:!bookTicker}")
+    private String streamName;
+
+    @Value("${arbitrage.fee-rate:0.001}")
+    private double feeRate;
+
+    @Value("${arbitrage.min-profit-rate:0.0005}")
+    private double minProfitRate;
+
+    @Value("${arbitrage.publish-interval-ms:1000}")
+    private long publishIntervalMs;
+
+    @Value("${arbitrage.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Deque<Map<String, Object>> recentOpportunities = new ArrayDeque<>();
+
+    private volatile TriangularArbitrageGraph graph;
+    private volatile boolean running;
+    private volatile boolean connected;
+    private OkHttpClient httpClient;
+    private WebSocket webSocket;
+    private ExecutorService publisher;
+    private ScheduledExecutorService reconnector;
+    private double feeMultiplier;
+
+    // 아래 필드는 스트림 수신 스레드에서만 갱신
+    private long[] lastPublishedAt = new long[0];
+    private volatile long messagesProcessed;
+    private volatile long cyclesEvaluated;
+    private volatile long opportunitiesFound;
+    private volatile long maxDetectionNanos;
+    private volatile long totalDetectionNanos;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        feeMultiplier = Math.pow(1.0 - feeRate, 3);
+        publisher = Executors.newSingleThreadExecutor(r -> daemon(r, "arbitrage-publisher"));
+        reconnector = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "arbitrage-reconnect"));
+        httpClient = new OkHttpClient.Builder()
+            .readTimeout(Duration.ZERO)
+            .pingInterval(Duration.ofMinutes(1))
+            .build();
+        running = true;
+        loadGraph();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (webSocket != null) {
+            webSocket.close(1000, "shutdown");
+        }
+        if (publisher != null) {
+            publisher.shutdownNow();
+            reconnector.shutdownNow();
+            httpClient.dispatcher().executorService().shutdown();
+        }
+    }
+
+    /**
+     * 탐색 상태와 최근 기회 목록
+     */
+    public Map<String, Object> getStatus() {
+        TriangularArbitrageGraph current = graph;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("connected", connected);
+        status.put("symbols", current != null ? current.getSymbolCount() : 0);
+        status.put("cycles", current != null ? current.getCycleCount() : 0);
+        status.put("messagesProcessed", messagesProcessed);
+        status.put("cyclesEvaluated", cyclesEvaluated);
+        status.put("opportunitiesFound", opportunitiesFound);
+        status.put("maxDetectionLatencyMicros", maxDetectionNanos / 1000);
+        status.put("avgDetectionLatencyMicros", messagesProcessed > 0 ? totalDetectionNanos / messagesProcessed / 1000 : 0);
+        synchronized (recentOpportunities) {
+            status.put("recentOpportunities", new ArrayList<>(recentOpportunities));
+        }
+        return status;
+    }
+
+    /**
+     * 거래소 심볼 정보로 그래프를 만든 뒤 스트림 연결
+     */
+    private void loadGraph() {
+        binanceApiService.getExchangeInfo().subscribe(
+            exchangeInfo -> {
+                try {
+                    TriangularArbitrageGraph built = TriangularArbitrageGraph.build(parseSymbols(exchangeInfo));
+                    lastPublishedAt = new long[built.getCycleCount()];
+                    graph = built;
+                    log.info("삼각 차익 그래프 구성: 심볼 {}개, 자산 {}개, 순환 {}개",
+                        built.getSymbolCount(), built.getAssetCount(), built.getCycleCount());
+                    connect();
+                } catch (RuntimeException e) {
+                    log.error("삼각 차익 그래프 구성 실패: {}", e.getMessage());
+                    scheduleRetry(this::loadGraph);
+                }
+            },
+            error -> {
+                log.error("거래소 정보 조회 실패로 차익 탐색을 시작하지 못했습니다: {}", error.getMessage());
+                scheduleRetry(this::loadGraph);
+            }
+        );
+    }
+
+    private void connect() {
+        if (!running) {
+            return;
+        }
+        Request request = new Request.Builder().url(streamUrl + streamName).build();
+        webSocket = httpClient.newWebSocket(request, new BookTickerListener());
+    }
+
+    private void scheduleReconnect() {
+        connected = false;
+        webSocket = null;
+        // 끊긴 동안의 호가는 믿을 수 없으므로 모두 비우고 새 호가만 사용
+        graph.clear();
+        scheduleRetry(this::connect);
+    }
+
+    private void scheduleRetry(Runnable task) {
+        if (running) {
+            reconnector.schedule(task, reconnectDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 호가 메시지 한 건 처리 - {"u":..., "s":"BNBUSDT", "b":"25.35", "B":"31.21", "a":"25.36", "A":"40.66"}
+     */
+    private void onBookTicker(String text, long receivedAt) throws IOException {
+        String symbol = null;
+        double bid = 0;
+        double ask = 0;
+        long updateId = 0;
+        try (JsonParser parser = jsonFactory.createParser(text)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "s" -> symbol = parser.getText();
+                    case "b" -> bid = Double.parseDouble(parser.getText());
+                    case "a" -> ask = Double.parseDouble(parser.getText());
+                    case "u" -> updateId = parser.getLongValue();
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+
+        TriangularArbitrageGraph current = graph;
+        int index = symbol != null ? current.indexOf(symbol) : -1;
+        if (index < 0) {
+            return;
+        }
+
+        String triggerSymbol = symbol;
+        long triggerUpdateId = updateId;
+        int evaluated = current.update(index, bid, ask, feeMultiplier, minProfitRate,
+            (cycle, netProfitRate) -> onOpportunity(current, cycle, netProfitRate, triggerSymbol, triggerUpdateId, receivedAt));
+
+        long detectionNanos = System.nanoTime() - receivedAt;
+        cyclesEvaluated += evaluated;
+        messagesProcessed++;
+        if (detectionNanos > maxDetectionNanos) {
+            maxDetectionNanos = detectionNanos;
+        }
+        totalDetectionNanos += detectionNanos;
+    }
+
+    private void onOpportunity(TriangularArbitrageGraph current, int cycle, double netProfitRate,
+                               String triggerSymbol, long updateId, long receivedAt) {
+        opportunitiesFound++;
+        long now = System.currentTimeMillis();
+        // 같은 순환은 발행 간격 안에 한 번만 보낸다
+        if (now - lastPublishedAt[cycle] < publishIntervalMs) {
+            return;
+        }
+        lastPublishedAt[cycle] = now;
+
+        Map<String, Object> opportunity = new LinkedHashMap<>();
+        opportunity.put("path", current.pathOf(cycle));
+        opportunity.put("legs", current.legsOf(cycle));
+        opportunity.put("netProfitRate", netProfitRate);
+        opportunity.put("feeRate", feeRate);
+        opportunity.put("triggerSymbol", triggerSymbol);
+        opportunity.put("updateId", updateId);
+        opportunity.put("detectionLatencyMicros", (System.nanoTime() - receivedAt) / 1000);
+        opportunity.put("timestamp", now);
+
+        publisher.execute(() -> publish(opportunity));
+    }
+
+    private void publish(Map<String, Object> opportunity) {
+        synchronized (recentOpportunities) {
+            if (recentOpportunities.size() == RECENT_OPPORTUNITIES) {
+                recentOpportunities.removeLast();
+            }
+            recentOpportunities.addFirst(opportunity);
+        }
+        try {
+            messagingTemplate.convertAndSend(ARBITRAGE_TOPIC, opportunity);
+        } catch (Exception e) {
+            log.error("차익 기회 전송 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 거래 중인 현물 심볼만 추출 (심볼 → [기준 자산, 호가 자산])
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, String[]> parseSymbols(Map<String, Object> exchangeInfo) {
+        List<Map<String, Object>> symbols = (List<Map<String, Object>>) exchangeInfo.get("symbols");
+        if (symbols == null) {
+            throw new IllegalStateException("거래소 정보 응답에 symbols 가 없습니다");
+        }
+        Map<String, String[]> pairs = new LinkedHashMap<>(symbols.size() * 2);
+        for (Map<String, Object> symbol : symbols) {
+            if (!"TRADING".equals(symbol.get("status")) || Boolean.FALSE.equals(symbol.get("isSpotTradingAllowed"))) {
+                continue;
+            }
+            pairs.put((String) symbol.get("symbol"),
+                new String[]{(String) symbol.get("baseAsset"), (String) symbol.get("quoteAsset")});
+        }
+        return pairs;
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private class BookTickerListener extends WebSocketListener {
+
+        @Override
+        public void onOpen(WebSocket socket, Response response) {
+            connected = true;
+            log.info("호가 스트림 연결: {}", streamName);
+        }
+
+        @Override
+        public void onMessage(WebSocket socket, String text) {
+            try {
+                onBookTicker(text, System.nanoTime());
+            } catch (Exception e) {
+                log.warn("호가 메시지 처리 실패: {}", e.getMessage());
+            }
+        }
+
+        @Override
+        public void onClosing(WebSocket socket, int code, String reason) {
+            socket.close(1000, null);
+        }
+
+        @Override
+        public void onClosed(WebSocket socket, int code, String reason) {
+            log.warn("호가 스트림 종료 ({} {}), 재연결 예정", code, reason);
+            scheduleReconnect();
+        }
+
+        @Override
+        public void onFailure(WebSocket socket, Throwable t, Response response) {
+            log.error("호가 스트림 오류, 재연결 예정: {}", t.getMessage());
+            scheduleReconnect();
+        }
+    }
+}
@@ -4,6 +4,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import reactor.core.publisher.Flux;
@@ -17,6 +19,7 @@ import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -25,12 +28,21 @@ public class BinanceApiService {
     @Value("${binance.api.base-url}")
     private String baseUrl;
     
+    /** 주문 없음 */
+    public static final int ORDER_DOES_NOT_EXIST = -2013;
+    
+    /** 신규 주문 거부 (중복 주문 포함) */
+    public static final int NEW_ORDER_REJECTED = -2010;
+    
+    private static final TypeReference<List<List<Object>>> KLINE_ROWS = new TypeReference<>() {};
+    
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
     
     public BinanceApiService() {
         this.webClient = WebClient.builder()
-            .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024))
+            // 전체 심볼 24시간 티커는 1MB 를 넘으므로 여유 있게 설정
+            .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
             .build();
         this.objectMapper = new ObjectMapper();
     }
@@ -47,6 +59,29 @@ public class BinanceApiService {
             .doOnError(error -> log.error("24시간 티커 조회 실패: {}", error.getMessage()));
     }
     
+    /**
+     * 24시간 가격 변동 통계 원본 JSON 조회 (스냅샷 갱신용)
+     */
+    public Mono<byte[]> get24hrTickerRaw() {
+        return webClient.get()
+            .uri(baseUrl + "/api/v3/ticker/24hr")
+            .retrieve()
+            .bodyToMono(byte[].class)
+            .doOnError(error -> log.error("24시간 티커 원본 조회 실패: {}", error.getMessage()));
+    }
+    
+    /**
+     * 거래소 심볼 정보 조회 (기준/호가 자산, 거래 상태)
+     */
+    public Mono<Map<String, Object>> getExchangeInfo() {
+        return webClient.get()
+            .uri(baseUrl + "/api/v3/exchangeInfo?permissions=SPOT")
+            .retrieve()
+            .bodyToMono(String.class)
+            .map(this::parseJsonToMap)
+            .doOnError(error -> log.error("거래소 정보 조회 실패: {}", error.getMessage()));
+    }
+    
     /**
      * 특정 심볼의 현재 가격 조회
      */
@@ -59,6 +94,35 @@ public class BinanceApiService {
             .doOnError(error -> log.error("심볼 {} 가격 조회 실패: {}", symbol, error.getMessage()));
     }
     
+    /**
+     * 여러 심볼의 현재 가격을 한 번의 요청으로 조회
+     */
+    public Mono<List<Map<String, Object>>> getSymbolPrices(Collection<String> symbols) {
+        String symbolsParam = symbols.stream()
+            .map(symbol -> "\"" + symbol + "\"")
+            .collect(Collectors.joining(",", "[", "]"));
+        
+        return webClient.get()
+            .uri(baseUrl + "/api/v3/ticker/price?symbols={symbols}", symbolsParam)
+            .retrieve()
+            .bodyToMono(String.class)
+            .map(this::parseJsonToList)
+            .doOnError(error -> log.error("심볼 {}개 가격 일괄 조회 실패: {}", symbols.size(), error.getMessage()));
+    }
+    
+    /**
+     * 캔들(kline) 조회 - [startTime, endTime] 구간에서 최대 limit 개
+     */
+    public Mono<List<List<Object>>> getKlines(String symbol, String interval, long startTime, long endTime, int limit) {
+        return webClient.get()
+            .uri(baseUrl + "/api/v3/klines?symbol=" + symbol + "&interval=" + interval
+                + "&startTime=" + startTime + "&endTime=" + endTime + "&limit=" + limit)
+            .retrieve()
+            .bodyToMono(byte[].class)
+            .map(this::parseKlines)
+            .doOnError(error -> log.error("심볼 {} 캔들 조회 실패: {}", symbol, error.getMessage()));
+    }
+    
     /**
      * 계정 정보 조회 (API 키 필요)
      */
@@ -81,6 +145,32 @@ public class BinanceApiService {
         }
     }
     
+    /**
+     * 체결 내역 원본 JSON 조회 (API 키 필요) - fromId 이상 trade ID 를 오름차순으로 최대 limit 개
+     */
+    public Mono<byte[]> getMyTradesRaw(String apiKey, String secretKey, String symbol, long fromId, int limit) {
+        try {
+            Map<String, String> params = new HashMap<>();
+            params.put("symbol", symbol);
+            params.put("fromId", String.valueOf(fromId));
+            params.put("limit", String.valueOf(limit));
+            params.put("timestamp", String.valueOf(Instant.now().toEpochMilli()));
+            
+            String queryString = buildQueryString(params);
+            String signature = generateSignature(queryString, secretKey);
+            
+            return webClient.get()
+                .uri(baseUrl + "/api/v3/myTrades?" + queryString + "&signature=" + signature)
+                .header("X-MBX-APIKEY", apiKey)
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .doOnError(error -> log.error("심볼 {} 체결 내역 조회 실패: {}", symbol, error.getMessage()));
+        } catch (Exception e) {
+            log.error("체결 내역 조회 중 오류 발생: {}", e.getMessage());
+            return Mono.error(e);
+        }
+    }
+    
     /**
      * API 키 유효성 검증
      */
@@ -96,35 +186,131 @@ public class BinanceApiService {
     public Mono<Map<String, Object>> createTestOrder(String apiKey, String secretKey, 
                                                    String symbol, String side, String type, 
                                                    String quantity, String price) {
+        Map<String, String> params = new HashMap<>();
+        params.put("symbol", symbol);
+        params.put("side", side);
+        params.put("type", type);
+        params.put("quantity", quantity);
+        if (price != null && !"MARKET".equals(type)) {
+            params.put("price", price);
+        }
+        return submitOrder(apiKey, secretKey, params, true);
+    }
+    
+    /**
+     * 주문 전송 - test 가 true 이면 /api/v3/order/test 로 검증만 수행
+     */
+    public Mono<Map<String, Object>> submitOrder(String apiKey, String secretKey, 
+                                               Map<String, String> orderParams, boolean test) {
         try {
-            String timestamp = String.valueOf(Instant.now().toEpochMilli());
+            Map<String, String> params = new HashMap<>(orderParams);
+            params.put("timestamp", String.valueOf(Instant.now().toEpochMilli()));
             
+            String queryString = buildQueryString(params);
+            String signature = generateSignature(queryString, secretKey);
+            String path = test ? "/api/v3/order/test" : "/api/v3/order";
+            
+            return webClient.post()
+                .uri(baseUrl + path + "?" + queryString + "&signature=" + signature)
+                .header("X-MBX-APIKEY", apiKey)
+                .retrieve()
+                .bodyToMono(String.class)
+                .map(this::parseJsonToMap)
+                .doOnError(error -> log.error("주문 생성 실패 {}: {}", orderParams.get("symbol"), error.getMessage()));
+        } catch (Exception e) {
+            log.error("주문 생성 중 오류 발생: {}", e.getMessage());
+            return Mono.error(e);
+        }
+    }
+    
+    /**
+     * newClientOrderId 로 주문 조회 (API 키 필요) - 주문이 없으면(-2013) 빈 Mono
+     */
+    public Mono<Map<String, Object>> getOrderByClientId(String apiKey, String secretKey,
+                                                      String symbol, String clientOrderId) {
+        try {
             Map<String, String> params = new HashMap<>();
             params.put("symbol", symbol);
-            params.put("side", side);
-            params.put("type", type);
-            params.put("quantity", quantity);
-            if (price != null && !"MARKET".equals(type)) {
-                params.put("price", price);
-            }
-            params.put("timestamp", timestamp);
+            params.put("origClientOrderId", clientOrderId);
+            params.put("timestamp", String.valueOf(Instant.now().toEpochMilli()));
             
             String queryString = buildQueryString(params);
             String signature = generateSignature(queryString, secretKey);
             
-            return webClient.post()
-                .uri(baseUrl + "/api/v3/order/test?" + queryString + "&signature=" + signature)
+            return webClient.get()
+                .uri(baseUrl + "/api/v3/order?" + queryString + "&signature=" + signature)
+                .header("X-MBX-APIKEY", apiKey)
+                .retrieve()
+                .bodyToMono(String.class)
+                .map(this::parseJsonToMap)
+                .onErrorResume(error -> errorCode(error) == ORDER_DOES_NOT_EXIST, error -> Mono.empty())
+                .doOnError(error -> log.error("주문 {} 조회 실패: {}", clientOrderId, error.getMessage()));
+        } catch (Exception e) {
+            log.error("주문 조회 중 오류 발생: {}", e.getMessage());
+            return Mono.error(e);
+        }
+    }
+    
+    /**
+     * 주문 취소 (API 키 필요) - 이미 체결/취소된 주문이면 -2011 오류
+     */
+    public Mono<Map<String, Object>> cancelOrder(String apiKey, String secretKey, String symbol, String orderId) {
+        try {
+            Map<String, String> params = new HashMap<>();
+            params.put("symbol", symbol);
+            params.put("orderId", orderId);
+            params.put("timestamp", String.valueOf(Instant.now().toEpochMilli()));
+            
+            String queryString = buildQueryString(params);
+            String signature = generateSignature(queryString, secretKey);
+            
+            return webClient.delete()
+                .uri(baseUrl + "/api/v3/order?" + queryString + "&signature=" + signature)
                 .header("X-MBX-APIKEY", apiKey)
                 .retrieve()
                 .bodyToMono(String.class)
                 .map(this::parseJsonToMap)
-                .doOnError(error -> log.error("테스트 주문 생성 실패: {}", error.getMessage()));
+                .doOnError(error -> log.error("주문 {} 취소 실패: {}", orderId, error.getMessage()));
         } catch (Exception e) {
-            log.error("테스트 주문 생성 중 오류 발생: {}", e.getMessage());
+            log.error("주문 취소 중 오류 발생: {}", e.getMessage());
             return Mono.error(e);
         }
     }
     
+    /**
+     * 바이낸스 오류 응답 본문의 code (바이낸스 오류 응답이 아니면 0)
+     */
+    public int errorCode(Throwable error) {
+        JsonNode code = errorBody(error).get("code");
+        return code != null ? code.asInt() : 0;
+    }
+    
+    /**
+     * 같은 newClientOrderId 의 미체결 주문이 있어 거부되었는지 여부
+     * -2010 은 잔고 부족 등 모든 신규 주문 거부에 쓰이므로 메시지까지 확인한다
+     */
+    public boolean isDuplicateOrder(Throwable error) {
+        JsonNode body = errorBody(error);
+        JsonNode code = body.get("code");
+        JsonNode message = body.get("msg");
+        return code != null && code.asInt() == NEW_ORDER_REJECTED && message != null
+            && message.asText().startsWith("Duplicate order");
+    }
+    
+    private JsonNode errorBody(Throwable error) {
+        if (error instanceof WebClientResponseException responseError) {
+            try {
+                JsonNode body = objectMapper.readTree(responseError.getResponseBodyAsString());
+                if (body != null && body.isObject()) {
+                    return body;
+                }
+            } catch (Exception e) {
+                log.debug("오류 응답 파싱 실패: {}", e.getMessage());
+            }
+        }
+        return objectMapper.createObjectNode();
+    }
+    
     /**
      * 서명 생성 (HMAC SHA256)
      */
@@ -168,6 +354,17 @@ public class BinanceApiService {
         }
     }
     
+    /**
+     * 캔들 응답 파싱 - 파싱 실패는 빈 페이지로 오인하지 않도록 예외로 전달
+     */
+    private List<List<Object>> parseKlines(byte[] json) {
+        try {
+            return objectMapper.readValue(json, KLINE_ROWS);
+        } catch (Exception e) {
+            throw new IllegalStateException("캔들 응답 파싱 실패: " + e.getMessage(), e);
+        }
+    }
+    
     /**
      * JSON 문자열을 List로 파싱
      */
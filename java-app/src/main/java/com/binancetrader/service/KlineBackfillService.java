@@ -0,0 +1,223 @@
+package com.binancetrader.service;
+
+import com.binancetrader.util.BatchJobProgress;
+import com.binancetrader.util.KlineFileCodec;
+import com.binancetrader.util.KlineSeries;
+import com.binancetrader.util.RateLimitedFetcher;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 1분봉 과거 데이터 백필
+ *
+ * 요청 구간을 심볼/월 단위 작업으로 나눠 병렬로 받아오고, 요청 가중치 예산 안에서만 호출한다.
+ * 결과는 {data-dir}/{SYMBOL}/{yyyy-MM}.klc 에 압축 컬럼 포맷으로 저장되며,
+ * 월 끝까지 채워진 파일은 다시 받지 않으므로 중단 후 같은 요청을 다시 보내면 이어서 진행된다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class KlineBackfillService {
+
+    private static final String INTERVAL = "1m";
+    private static final long INTERVAL_MS = 60_000L;
+    private static final int PAGE_LIMIT = 1000;
+    private static final int KLINE_WEIGHT = 2;
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final BinanceApiService binanceApiService;
+
+    @Value("${backfill.data-dir:data/klines}")
+    private String dataDir;
+
+    @Value("${backfill.concurrency:8}")
+    private int concurrency;
+
+    @Value("${backfill.weight-per-minute:3000}")
+    private int weightPerMinute;
+
+    @Value("${backfill.request-timeout-ms:30000}")
+    private long requestTimeoutMs;
+
+    @Value("${backfill.retry-base-ms:500}")
+    private long retryBaseMs;
+
+    private final Map<String, BackfillJob> jobs = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+    private RateLimitedFetcher fetcher;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread thread = new Thread(r, "kline-backfill-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        fetcher = new RateLimitedFetcher(weightPerMinute, MAX_ATTEMPTS, retryBaseMs, requestTimeoutMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 진행 중인 월은 파일이 쓰이지 않으므로 다음 실행에서 다시 받는다
+        executor.shutdownNow();
+    }
+
+    /**
+     * 백필 작업 시작 - 이미 완료된 심볼/월은 건너뜀
+     */
+    public BackfillJob start(List<String> symbols, YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new RuntimeException("시작 월이 종료 월보다 늦습니다: " + from + " > " + to);
+        }
+
+        BackfillJob job = new BackfillJob(UUID.randomUUID().toString(), symbols, from, to);
+        jobs.put(job.getId(), job);
+
+        // 전체 작업 수를 먼저 확정해야 진행 중에 완료로 보이지 않는다
+        long now = System.currentTimeMillis();
+        List<Map.Entry<String, YearMonth>> pending = new ArrayList<>();
+        int total = 0;
+        for (String rawSymbol : symbols) {
+            String symbol = rawSymbol.trim().toUpperCase();
+            for (YearMonth month = from; !month.isAfter(to) && startOf(month) < now; month = month.plusMonths(1)) {
+                total++;
+                if (isComplete(symbol, month)) {
+                    job.recordSkipped();
+                } else {
+                    pending.add(Map.entry(symbol, month));
+                }
+            }
+        }
+        job.setTotal(total);
+        for (Map.Entry<String, YearMonth> task : pending) {
+            executor.execute(() -> runMonth(job, task.getKey(), task.getValue()));
+        }
+
+        log.info("캔들 백필 시작 {}: 심볼 {}개, {} ~ {}, 작업 {}건 (완료분 {}건 건너뜀)",
+            job.getId(), symbols.size(), from, to, total, job.getSkipped());
+        return job;
+    }
+
+    public BackfillJob getJob(String jobId) {
+        BackfillJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("백필 작업을 찾을 수 없습니다: " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * 저장된 한 달치 1분봉 로드
+     */
+    public KlineSeries load(String symbol, YearMonth month) throws IOException {
+        return KlineFileCodec.read(pathOf(symbol.toUpperCase(), month));
+    }
+
+    private void runMonth(BackfillJob job, String symbol, YearMonth month) {
+        try {
+            backfillMonth(symbol, month);
+            job.recordCompleted();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.recordFailure(symbol + " " + month + ": 중단됨");
+        } catch (Exception e) {
+            log.error("캔들 백필 실패 {} {}: {}", symbol, month, e.getMessage());
+            job.recordFailure(symbol + " " + month + ": " + e.getMessage());
+        }
+    }
+
+    private void backfillMonth(String symbol, YearMonth month) throws InterruptedException, IOException {
+        long start = startOf(month);
+        long monthEnd = startOf(month.plusMonths(1));
+        // 진행 중인 달은 마지막으로 닫힌 봉까지만 받고, 다음 실행에서 다시 채운다
+        long end = Math.min(monthEnd, System.currentTimeMillis() / INTERVAL_MS * INTERVAL_MS);
+
+        List<List<Object>> rows = new ArrayList<>((int) ((end - start) / INTERVAL_MS));
+        long cursor = start;
+        while (cursor < end) {
+            List<List<Object>> page = fetchPage(symbol, cursor, end - 1);
+            if (page.isEmpty()) {
+                break;
+            }
+            rows.addAll(page);
+            cursor = ((Number) page.get(page.size() - 1).get(0)).longValue() + INTERVAL_MS;
+        }
+
+        KlineFileCodec.write(pathOf(symbol, month), KlineSeries.fromRows(symbol, INTERVAL_MS, end, rows));
+        log.debug("캔들 백필 완료 {} {}: {}개", symbol, month, rows.size());
+    }
+
+    /**
+     * 한 페이지 조회 (속도 제한/재시도는 RateLimitedFetcher 공통 처리)
+     */
+    private List<List<Object>> fetchPage(String symbol, long startTime, long endTime) throws InterruptedException {
+        return fetcher.fetch(KLINE_WEIGHT,
+            () -> binanceApiService.getKlines(symbol, INTERVAL, startTime, endTime, PAGE_LIMIT),
+            Collections.emptyList());
+    }
+
+    private boolean isComplete(String symbol, YearMonth month) {
+        Path path = pathOf(symbol, month);
+        if (!Files.exists(path)) {
+            return false;
+        }
+        try {
+            return KlineFileCodec.readCoverageEnd(path) >= startOf(month.plusMonths(1));
+        } catch (IOException e) {
+            log.warn("손상된 캔들 파일은 다시 받습니다 {}: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    private Path pathOf(String symbol, YearMonth month) {
+        return Paths.get(dataDir, symbol, month + ".klc");
+    }
+
+    private static long startOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * 백필 작업 진행 상황
+     */
+    public static class BackfillJob extends BatchJobProgress {
+        private final List<String> symbols;
+        private final YearMonth from;
+        private final YearMonth to;
+
+        BackfillJob(String id, List<String> symbols, YearMonth from, YearMonth to) {
+            super(id);
+            this.symbols = List.copyOf(symbols);
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void describe(Map<String, Object> map) {
+            map.put("symbols", symbols);
+            map.put("from", from.toString());
+            map.put("to", to.toString());
+        }
+    }
+}
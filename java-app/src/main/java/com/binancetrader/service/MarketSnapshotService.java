@@ -0,0 +1,376 @@
+package com.binancetrader.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 시장 스냅샷 서비스
+ *
+ * 24시간 티커 전체를 주기적으로 갱신하고, 스냅샷 버전마다 응답 본문을 한 번만
+ * 직렬화(및 gzip 압축)해 둔다. 컨트롤러는 같은 byte[] 를 모든 요청에 그대로
+ * 내보내고, 본문 해시 기반 ETag 로 변경이 없으면 304 를 돌려준다.
+ * ETag 가 내용에서 나오므로 재시작 후나 여러 인스턴스 사이에서도 같은 본문이면 같은 값이다.
+ */
+@Service
+@Lazy(false)
+@RequiredArgsConstructor
+@Slf4j
+public class MarketSnapshotService {
+
+    public static final List<String> MAJOR_SYMBOLS = List.of(
+        "BTCUSDT", "ETHUSDT", "BNBUSDT", "ADAUSDT",
+        "SOLUSDT", "DOTUSDT", "MATICUSDT", "AVAXUSDT", "LINKUSDT"
+    );
+
+    private static final Pattern SYMBOL_PATTERN = Pattern.compile("[A-Z0-9]{2,20}");
+
+    private final BinanceApiService binanceApiService;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final AtomicLong versionSequence = new AtomicLong();
+    /** 진행 중인 갱신 - 동시에 들어온 요청과 스케줄러가 같은 업스트림 조회를 공유 */
+    private final AtomicReference<CompletableFuture<Snapshot>> inFlight = new AtomicReference<>();
+
+    @Value("${market.snapshot.gzip:true}")
+    private boolean gzipEnabled;
+
+    @Value("${market.prices.max-age-ms:15000}")
+    private long priceMaxAgeMs;
+
+    @Value("${market.prices.max-symbols:100}")
+    private int priceMaxSymbols;
+
+    /**
+     * 주기적 스냅샷 갱신 (이전 갱신이 끝나지 않았으면 그 결과를 공유)
+     */
+    @Scheduled(fixedDelayString = "${market.snapshot.refresh-ms:5000}")
+    public void scheduledRefresh() {
+        sharedRefresh()
+            .subscribe(
+                snapshot -> log.debug("시장 스냅샷 갱신: v{} ({}개 심볼)", snapshot.getVersion(), snapshot.getTickers().size()),
+                error -> log.error("시장 스냅샷 갱신 실패: {}", error.getMessage())
+            );
+    }
+
+    /**
+     * 현재 스냅샷 - 아직 없으면 즉시 한 번 조회 (기동 직후 몰린 요청은 한 번의 조회를 공유)
+     */
+    public Mono<Snapshot> snapshot() {
+        Snapshot snapshot = current.get();
+        return snapshot != null ? Mono.just(snapshot) : sharedRefresh();
+    }
+
+    /**
+     * 현재 스냅샷 (없으면 null)
+     */
+    public Snapshot currentSnapshot() {
+        return current.get();
+    }
+
+    /**
+     * 여러 심볼의 가격 일괄 조회
+     * 스냅샷에 있고 max-age 이내인 심볼은 스냅샷에서, 나머지는 한 번의 업스트림 요청으로 조회한다.
+     * 바이낸스는 심볼 하나만 잘못되어도 요청 전체를 거부하므로, 스냅샷(오래되었어도)에 없는 심볼은
+     * 존재하지 않는 심볼로 보고 업스트림에 보내지 않는다. 기동 직후 스냅샷이 아직 없으면 첫 스냅샷을
+     * 기다렸다가 같은 방식으로 검증한다 (첫 스냅샷 조회마저 실패한 경우에만 검증 없이 업스트림 조회).
+     * 각 가격에는 조회 시각(timestamp)과 출처(snapshot/upstream)가 붙는다.
+     */
+    public Mono<Map<String, Object>> getPrices(Collection<String> requestedSymbols) {
+        Set<String> symbols = new LinkedHashSet<>();
+        List<String> invalid = new ArrayList<>();
+        for (String requested : requestedSymbols) {
+            String symbol = requested.trim().toUpperCase();
+            if (SYMBOL_PATTERN.matcher(symbol).matches()) {
+                symbols.add(symbol);
+            } else if (!symbol.isEmpty()) {
+                invalid.add(requested);
+            }
+        }
+        if (symbols.size() > priceMaxSymbols) {
+            return Mono.error(new IllegalArgumentException(
+                "한 번에 조회할 수 있는 심볼은 최대 " + priceMaxSymbols + "개입니다: " + symbols.size()));
+        }
+
+        Snapshot snapshot = current.get();
+        if (snapshot != null) {
+            return resolvePrices(snapshot, symbols, invalid);
+        }
+        return sharedRefresh()
+            .onErrorResume(error -> {
+                log.warn("첫 시장 스냅샷 조회 실패 - 심볼 검증 없이 조회: {}", error.getMessage());
+                return Mono.empty();
+            })
+            .flatMap(first -> resolvePrices(first, symbols, invalid))
+            .switchIfEmpty(Mono.defer(() -> resolvePrices(null, symbols, invalid)));
+    }
+
+    /**
+     * 스냅샷으로 심볼을 검증하고 가격을 채운다 - 스냅샷에 없는 심볼은 invalid 로 옮긴다
+     */
+    private Mono<Map<String, Object>> resolvePrices(Snapshot snapshot, Set<String> symbols, List<String> invalid) {
+        Map<String, Map<String, Object>> prices = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+        boolean snapshotFresh = snapshot != null && System.currentTimeMillis() - snapshot.getFetchedAt() <= priceMaxAgeMs;
+
+        for (String symbol : symbols) {
+            Map<String, Object> ticker = snapshot != null ? snapshot.getTickers().get(symbol) : null;
+            if (snapshot != null && ticker == null) {
+                invalid.add(symbol);
+            } else if (snapshotFresh && ticker.get("lastPrice") != null) {
+                prices.put(symbol, priceEntry(ticker.get("lastPrice"), snapshot.getFetchedAt(), "snapshot"));
+            } else {
+                misses.add(symbol);
+            }
+        }
+        symbols.removeAll(invalid);
+
+        if (misses.isEmpty()) {
+            return Mono.just(pricesResponse(symbols, prices, invalid));
+        }
+
+        return binanceApiService.getSymbolPrices(misses)
+            .map(upstreamPrices -> {
+                long fetchedAt = System.currentTimeMillis();
+                for (Map<String, Object> price : upstreamPrices) {
+                    prices.put((String) price.get("symbol"), priceEntry(price.get("price"), fetchedAt, "upstream"));
+                }
+                return pricesResponse(symbols, prices, invalid);
+            })
+            .onErrorResume(error -> Mono.just(pricesResponse(symbols, prices, invalid)));
+    }
+
+    private static Map<String, Object> priceEntry(Object price, long timestamp, String source) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("price", price);
+        entry.put("timestamp", timestamp);
+        entry.put("source", source);
+        return entry;
+    }
+
+    /**
+     * 요청 순서대로 정렬한 응답 - 끝내 가격을 찾지 못한 심볼은 missing 으로 표시
+     */
+    private static Map<String, Object> pricesResponse(Set<String> symbols, Map<String, Map<String, Object>> prices,
+                                                      List<String> invalid) {
+        Map<String, Object> ordered = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>(invalid);
+        for (String symbol : symbols) {
+            Map<String, Object> entry = prices.get(symbol);
+            if (entry != null) {
+                ordered.put(symbol, entry);
+            } else {
+                missing.add(symbol);
+            }
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("prices", ordered);
+        response.put("missing", missing);
+        return response;
+    }
+
+    private Mono<Snapshot> refresh() {
+        return binanceApiService.get24hrTickerRaw().map(this::publish);
+    }
+
+    /**
+     * 진행 중인 갱신이 있으면 그 결과를, 없으면 새 갱신을 시작해서 돌려준다
+     * 구독자가 취소해도 공유 중인 조회는 끝까지 진행된다
+     */
+    private Mono<Snapshot> sharedRefresh() {
+        CompletableFuture<Snapshot> future = new CompletableFuture<>();
+        CompletableFuture<Snapshot> existing = inFlight.compareAndExchange(null, future);
+        if (existing != null) {
+            return Mono.fromFuture(existing, true);
+        }
+        refresh().subscribe(
+            snapshot -> {
+                inFlight.set(null);
+                future.complete(snapshot);
+            },
+            error -> {
+                inFlight.set(null);
+                future.completeExceptionally(error);
+            },
+            () -> {
+                // 빈 응답으로 끝난 경우
+                if (inFlight.compareAndSet(future, null)) {
+                    future.completeExceptionally(new IllegalStateException("24시간 티커 응답이 비어 있습니다"));
+                }
+            }
+        );
+        return Mono.fromFuture(future, true);
+    }
+
+    private Snapshot publish(byte[] raw) {
+        Snapshot previous = current.get();
+        if (previous != null && Arrays.equals(previous.getTicker24hr().getBody(), raw)) {
+            // 내용이 같으면 버전은 유지하고 조회 시각만 갱신
+            previous.fetchedAt = System.currentTimeMillis();
+            return previous;
+        }
+
+        try {
+            List<Map<String, Object>> tickers = objectMapper.readValue(raw, new TypeReference<>() {});
+
+            Map<String, Map<String, Object>> bySymbol = new HashMap<>(tickers.size() * 2);
+            Map<String, Object> majorTickers = new LinkedHashMap<>();
+            for (Map<String, Object> ticker : tickers) {
+                String symbol = (String) ticker.get("symbol");
+                bySymbol.put(symbol, ticker);
+            }
+            for (String symbol : MAJOR_SYMBOLS) {
+                Map<String, Object> ticker = bySymbol.get(symbol);
+                if (ticker != null) {
+                    majorTickers.put(symbol, ticker);
+                }
+            }
+
+            long version = versionSequence.incrementAndGet();
+            Snapshot snapshot = new Snapshot(
+                version,
+                System.currentTimeMillis(),
+                Collections.unmodifiableMap(bySymbol),
+                serialize("24hr", raw, previous == null ? null : previous.getTicker24hr()),
+                serialize("major", objectMapper.writeValueAsBytes(majorTickers),
+                    previous == null ? null : previous.getMajorSymbols())
+            );
+            current.set(snapshot);
+
+            return snapshot;
+        } catch (IOException e) {
+            throw new UncheckedIOException("24시간 티커 파싱 실패", e);
+        }
+    }
+
+    /**
+     * 본문 직렬화 - 이전 버전과 내용이 같으면 이전 본문(과 ETag)을 그대로 재사용
+     */
+    private SerializedBody serialize(String name, byte[] body, SerializedBody previous) {
+        if (previous != null && Arrays.equals(previous.getBody(), body)) {
+            return previous;
+        }
+        return new SerializedBody("\"" + name + "-" + contentHash(body) + "\"", body, gzipEnabled ? gzip(body) : null);
+    }
+
+    /**
+     * 본문 SHA-256 앞 16바이트 (16진수)
+     */
+    private static String contentHash(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 특정 버전의 시장 스냅샷 (조회 시각 외에는 불변)
+     */
+    public static final class Snapshot {
+        private final long version;
+        private volatile long fetchedAt;
+        private final Map<String, Map<String, Object>> tickers;
+        private final SerializedBody ticker24hr;
+        private final SerializedBody majorSymbols;
+
+        Snapshot(long version, long fetchedAt, Map<String, Map<String, Object>> tickers,
+                 SerializedBody ticker24hr, SerializedBody majorSymbols) {
+            this.version = version;
+            this.fetchedAt = fetchedAt;
+            this.tickers = tickers;
+            this.ticker24hr = ticker24hr;
+            this.majorSymbols = majorSymbols;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public long getFetchedAt() {
+            return fetchedAt;
+        }
+
+        public Map<String, Map<String, Object>> getTickers() {
+            return tickers;
+        }
+
+        public SerializedBody getTicker24hr() {
+            return ticker24hr;
+        }
+
+        public SerializedBody getMajorSymbols() {
+            return majorSymbols;
+        }
+    }
+
+    /**
+     * 미리 직렬화된 JSON 본문 - 모든 요청이 같은 배열을 공유하므로 수정 금지
+     */
+    public static final class SerializedBody {
+        private final String etag;
+        private final byte[] body;
+        private final byte[] gzipBody;
+
+        SerializedBody(String etag, byte[] body, byte[] gzipBody) {
+            this.etag = etag;
+            this.body = body;
+            this.gzipBody = gzipBody;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        /**
+         * gzip 본문 (비활성화 시 null)
+         */
+        public byte[] getGzipBody() {
+            return gzipBody;
+        }
+    }
+}
@@ -0,0 +1,493 @@
+package com.binancetrader.service;
+
+import com.binancetrader.model.Order;
+import com.binancetrader.model.TradingStrategy;
+import com.binancetrader.model.User;
+import com.binancetrader.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 전략 주문 실행
+ *
+ * 주문마다 실행 회차에서 결정적으로 만든 newClientOrderId 를 붙이고, 전송 전에 주문 행을 먼저 기록한다.
+ * 응답이 늦거나 결과를 알 수 없으면 다시 전송하지 않고 clientOrderId 로 주문을 조회하며,
+ * recvWindow 가 지나 원래 요청이 더 이상 체결될 수 없을 때까지 주문이 없을 때만 재전송한다.
+ * 바이낸스는 clientOrderId 중복을 미체결 주문 사이에서만 막으므로 같은 주문을 동시에 두 번 보내는 헤지는 쓰지 않고,
+ * 지연이 hedge-delay-ms 를 넘으면 주문 조회를 함께 보내 먼저 확인되는 쪽을 사용한다.
+ * 끝내 결과를 확인하지 못한 주문은 주기적으로 clientOrderId 로 다시 조회해 확정한다.
+ */
+@Service
+@Lazy(false)
+@RequiredArgsConstructor
+@Slf4j
+public class OrderExecutionService {
+    
+    /** 로컬 시계와 바이낸스 서버 시계 차이 허용치 */
+    private static final long CLOCK_SKEW_MS = 1000;
+    
+    private final BinanceApiService binanceApiService;
+    private final OrderRepository orderRepository;
+    
+    @Value("${trading.live-orders:false}")
+    private boolean liveOrders;
+    
+    @Value("${trading.order-timeout-ms:10000}")
+    private long orderTimeoutMs;
+    
+    @Value("${trading.hedge-delay-ms:300}")
+    private long hedgeDelayMs;
+    
+    @Value("${trading.recv-window-ms:5000}")
+    private long recvWindowMs;
+    
+    @Value("${trading.max-submit-attempts:2}")
+    private int maxSubmitAttempts;
+    
+    @Value("${trading.dedupe-size:10000}")
+    private int dedupeSize;
+    
+    /** 최근 clientOrderId 별 처리 결과 (진행 중이면 미완료), 오래된 것부터 제거 */
+    private final Map<String, CompletableFuture<Order>> recentOrders = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<Order>> eldest) {
+            return size() > dedupeSize;
+        }
+    };
+    
+    /**
+     * 전략 주문 실행 - 바이낸스로 전송하고 주문 이력을 저장
+     * 호출 스레드에서 응답을 기다리므로 사용자 작업 레인에서 호출해야 한다
+     * quantity 와 quoteAmount 중 하나만 지정 (quoteAmount 는 MARKET 주문 전용)
+     *
+     * @param intentKey 실행 회차 식별자 - 같은 값으로 다시 호출하면 새 주문 없이 기존 주문을 돌려준다
+     */
+    public Order placeOrder(User user, TradingStrategy strategy, Order.OrderSide side, Order.OrderType type,
+                            BigDecimal quantity, BigDecimal quoteAmount, BigDecimal price, String intentKey) {
+        String symbol = normalizeSymbol(strategy.getSymbol());
+        String clientOrderId = clientOrderId(user.getId(), strategy.getId(), intentKey, side, type);
+        
+        CompletableFuture<Order> result = new CompletableFuture<>();
+        CompletableFuture<Order> previous;
+        synchronized (recentOrders) {
+            previous = recentOrders.putIfAbsent(clientOrderId, result);
+            if (previous != null && previous.isCompletedExceptionally()) {
+                recentOrders.put(clientOrderId, result);
+            }
+        }
+        if (previous != null && !previous.isCompletedExceptionally()) {
+            log.info("중복 주문 요청 무시: {} (전략 {})", clientOrderId, strategy.getId());
+            return await(previous, clientOrderId);
+        }
+        
+        try {
+            Order order = execute(user, strategy, symbol, side, type, quantity, quoteAmount, price, clientOrderId);
+            result.complete(order);
+            return order;
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            throw e;
+        }
+    }
+    
+    private Order execute(User user, TradingStrategy strategy, String symbol, Order.OrderSide side,
+                          Order.OrderType type, BigDecimal quantity, BigDecimal quoteAmount, BigDecimal price,
+                          String clientOrderId) {
+        Order order = orderRepository.findByClientOrderId(clientOrderId).orElse(null);
+        if (order != null && (order.getBinanceOrderId() != null || order.getStatus() != Order.OrderStatus.NEW
+                || !liveOrders)) {
+            log.info("이미 처리된 주문: {} (전략 {})", clientOrderId, strategy.getId());
+            return order;
+        }
+        
+        // 이전 시도의 결과를 모르는 주문은 전송하기 전에 먼저 조회
+        Map<String, Object> response = null;
+        if (order != null) {
+            // 마지막 전송 직전에 행을 갱신하므로, 그 시각의 recvWindow 가 지나야 "주문 없음"을 믿을 수 있다
+            log.warn("결과 미확인 주문 재확인: {}", clientOrderId);
+            response = awaitOrder(user, symbol, clientOrderId, submittedAt(order) + recvWindowMs + CLOCK_SKEW_MS);
+            if (response == null) {
+                order = markSubmitting(order);
+            }
+        } else {
+            order = new Order();
+            order.setUser(user);
+            order.setStrategy(strategy);
+            order.setSymbol(symbol);
+            order.setSide(side);
+            order.setType(type);
+            order.setQuantity(quantity);
+            order.setPrice(price);
+            order.setStatus(Order.OrderStatus.NEW);
+            order.setClientOrderId(clientOrderId);
+            order = orderRepository.save(order);
+        }
+        
+        if (response == null) {
+            Map<String, String> params = new HashMap<>();
+            params.put("symbol", symbol);
+            params.put("side", side.name());
+            params.put("type", type.name());
+            params.put("newClientOrderId", clientOrderId);
+            params.put("recvWindow", String.valueOf(recvWindowMs));
+            if (quantity != null) {
+                params.put("quantity", quantity.toPlainString());
+            } else {
+                params.put("quoteOrderQty", quoteAmount.toPlainString());
+            }
+            if (price != null && type != Order.OrderType.MARKET) {
+                params.put("price", price.toPlainString());
+                params.put("timeInForce", "GTC");
+            }
+            
+            try {
+                response = liveOrders ? submitLive(user, order, params) : submitTest(user, params);
+            } catch (OrderRejectedException e) {
+                order.setStatus(Order.OrderStatus.REJECTED);
+                orderRepository.save(order);
+                throw e;
+            }
+        }
+        
+        if (response != null && response.get("orderId") != null) {
+            applyResponse(order, response);
+        }
+        
+        Order savedOrder = orderRepository.save(order);
+        log.info("전략 {} 주문 실행: {} {} {} {} (live={})",
+            strategy.getId(), symbol, side, type, clientOrderId, liveOrders);
+        
+        return savedOrder;
+    }
+    
+    /**
+     * 전략의 미체결 주문 취소 - 모두 미체결 상태에서 벗어났으면 true
+     * 취소 결과를 확인하지 못한 주문이 있으면 false (호출자는 새 주문을 내지 않아야 한다)
+     */
+    public boolean cancelOpenOrders(User user, TradingStrategy strategy, Order.OrderSide side, Order.OrderType type) {
+        boolean cleared = true;
+        for (Order order : orderRepository.findOpenOrdersOfStrategy(strategy.getId(), side, type)) {
+            try {
+                Map<String, Object> response = binanceApiService
+                    .cancelOrder(user.getBinanceApiKey(), user.getBinanceSecretKey(), order.getSymbol(),
+                        order.getBinanceOrderId())
+                    .block(Duration.ofMillis(orderTimeoutMs));
+                if (response != null && response.get("orderId") != null) {
+                    applyResponse(order, response);
+                    orderRepository.save(order);
+                    log.info("전략 {} 미체결 주문 취소: {}", strategy.getId(), order.getBinanceOrderId());
+                }
+            } catch (WebClientResponseException e) {
+                // 취소 전에 체결되었거나 이미 취소된 주문 - 현재 상태를 조회해서 반영
+                if (!e.getStatusCode().is4xxClientError() || !refreshStatus(user, order)) {
+                    cleared = false;
+                }
+            } catch (RuntimeException e) {
+                log.warn("주문 {} 취소 결과 미확인: {}", order.getBinanceOrderId(), e.getMessage());
+                cleared = false;
+            }
+            if (order.getStatus() == Order.OrderStatus.NEW || order.getStatus() == Order.OrderStatus.PARTIALLY_FILLED) {
+                cleared = false;
+            }
+        }
+        return cleared;
+    }
+    
+    /**
+     * clientOrderId 로 주문 상태를 다시 읽어 저장 - 조회에 실패하면 false
+     */
+    private boolean refreshStatus(User user, Order order) {
+        if (order.getClientOrderId() == null) {
+            return false;
+        }
+        try {
+            Map<String, Object> found = binanceApiService
+                .getOrderByClientId(user.getBinanceApiKey(), user.getBinanceSecretKey(), order.getSymbol(),
+                    order.getClientOrderId())
+                .block(Duration.ofMillis(orderTimeoutMs));
+            if (found == null) {
+                return false;
+            }
+            applyResponse(order, found);
+            orderRepository.save(order);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("주문 {} 상태 조회 실패: {}", order.getClientOrderId(), e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * 결과를 확인하지 못한 주문 정리 - 호출자가 조회를 포기하고 NEW 로 남긴 주문을 clientOrderId 로 조회해
+     * 접수되었으면 상태를 반영하고, 마지막 전송의 recvWindow 가 지나도록 없으면 접수되지 않은 것(REJECTED)으로 확정
+     */
+    @Scheduled(fixedDelayString = "${trading.reconcile-ms:30000}")
+    public void reconcileUnconfirmedOrders() {
+        if (!liveOrders) {
+            // 테스트 주문은 바이낸스 주문 ID 없이 NEW 로 남는 것이 정상
+            return;
+        }
+        LocalDateTime before = LocalDateTime.now().minus(Duration.ofMillis(recvWindowMs + CLOCK_SKEW_MS));
+        for (Order order : orderRepository.findUnconfirmedOrders(Order.OrderStatus.NEW, before)) {
+            reconcile(order);
+        }
+    }
+    
+    private void reconcile(Order order) {
+        String clientOrderId = order.getClientOrderId();
+        // 같은 주문을 실행 중이면 건너뛰고, 정리하는 동안 들어온 같은 주문 요청은 이 결과를 기다리게 한다
+        CompletableFuture<Order> claim = new CompletableFuture<>();
+        synchronized (recentOrders) {
+            CompletableFuture<Order> previous = recentOrders.get(clientOrderId);
+            if (previous != null && !previous.isDone()) {
+                return;
+            }
+            recentOrders.put(clientOrderId, claim);
+        }
+        
+        try {
+            User user = order.getUser();
+            Map<String, Object> found = binanceApiService
+                .getOrderByClientId(user.getBinanceApiKey(), user.getBinanceSecretKey(), order.getSymbol(), clientOrderId)
+                .block(Duration.ofMillis(orderTimeoutMs));
+            if (found != null) {
+                applyResponse(order, found);
+                log.info("미확인 주문 {} 접수 확인: {}", clientOrderId, order.getStatus());
+            } else {
+                order.setStatus(Order.OrderStatus.REJECTED);
+                log.warn("미확인 주문 {} 미접수 확정", clientOrderId);
+            }
+            claim.complete(orderRepository.save(order));
+        } catch (RuntimeException e) {
+            log.warn("미확인 주문 {} 조회 실패: {}", clientOrderId, e.getMessage());
+            claim.completeExceptionally(e);
+        }
+    }
+    
+    /**
+     * 바이낸스 주문 응답(생성/조회/취소)을 주문 행에 반영
+     */
+    private static void applyResponse(Order order, Map<String, Object> response) {
+        order.setBinanceOrderId(String.valueOf(response.get("orderId")));
+        Object status = response.get("status");
+        if (status != null) {
+            Order.OrderStatus mapped = Order.OrderStatus.fromBinance(status.toString());
+            if (mapped != null) {
+                order.setStatus(mapped);
+            } else {
+                log.warn("알 수 없는 주문 상태 {} - 주문 {} 상태 유지", status, order.getClientOrderId());
+            }
+        }
+        Object executedQty = response.get("executedQty");
+        if (executedQty != null) {
+            order.setExecutedQuantity(new BigDecimal(executedQty.toString()));
+        }
+    }
+    
+    private Map<String, Object> submitTest(User user, Map<String, String> params) {
+        try {
+            return binanceApiService
+                .submitOrder(user.getBinanceApiKey(), user.getBinanceSecretKey(), params, true)
+                .block(Duration.ofMillis(orderTimeoutMs));
+        } catch (WebClientResponseException e) {
+            throw new OrderRejectedException("테스트 주문 거부: " + e.getResponseBodyAsString(), e);
+        }
+    }
+    
+    /**
+     * 실주문 전송 - 응답과 헤지 조회 중 먼저 확인된 결과 사용, 결과를 모르면 조회로 확정
+     */
+    private Map<String, Object> submitLive(User user, Order order, Map<String, String> params) {
+        String symbol = params.get("symbol");
+        String clientOrderId = order.getClientOrderId();
+        for (int attempt = 1; ; attempt++) {
+            if (attempt > 1) {
+                markSubmitting(order);
+            }
+            Mono<Map<String, Object>> request = binanceApiService
+                .submitOrder(user.getBinanceApiKey(), user.getBinanceSecretKey(), params, false);
+            // 요청 timestamp 는 위에서 정해지므로 이 시각 이후로는 원래 요청이 늦게 도착해도 recvWindow 로 거부된다
+            long expiresAt = System.currentTimeMillis() + recvWindowMs + CLOCK_SKEW_MS;
+            
+            Mono<Attempt> primary = request
+                .map(Attempt::of)
+                .onErrorResume(error -> Mono.just(Attempt.failed(error)));
+            Mono<Attempt> hedge = binanceApiService
+                .getOrderByClientId(user.getBinanceApiKey(), user.getBinanceSecretKey(), symbol, clientOrderId)
+                .map(Attempt::of)
+                .onErrorResume(error -> Mono.empty())
+                .delaySubscription(Duration.ofMillis(hedgeDelayMs));
+            
+            Attempt outcome = Mono.firstWithValue(primary, hedge)
+                .timeout(Duration.ofMillis(orderTimeoutMs), Mono.fromSupplier(() -> Attempt.failed(
+                    new TimeoutException("주문 응답 지연 " + orderTimeoutMs + "ms"))))
+                .block();
+            
+            if (outcome.response() != null) {
+                return outcome.response();
+            }
+            if (isRejected(outcome.error())) {
+                throw new OrderRejectedException("주문 거부: " + describe(outcome.error()), outcome.error());
+            }
+            
+            log.warn("주문 {} 결과 미확인 ({}회차): {}", clientOrderId, attempt, describe(outcome.error()));
+            Map<String, Object> found = awaitOrder(user, symbol, clientOrderId, expiresAt);
+            if (found != null) {
+                return found;
+            }
+            if (attempt >= maxSubmitAttempts) {
+                throw new OrderRejectedException("주문이 접수되지 않았습니다: " + clientOrderId, outcome.error());
+            }
+            log.warn("주문 {} 미접수 확인, 같은 clientOrderId 로 재전송", clientOrderId);
+        }
+    }
+    
+    /**
+     * clientOrderId 로 주문 조회 - 찾으면 주문, expiresAt 이후 조회에서도 없으면 null
+     * 조회 자체가 계속 실패하면 결과를 확정할 수 없으므로 예외 (주문 행은 NEW 로 남아 다음 호출에서 재확인)
+     */
+    private Map<String, Object> awaitOrder(User user, String symbol, String clientOrderId, long expiresAt) {
+        long giveUpAt = Math.max(expiresAt, System.currentTimeMillis()) + orderTimeoutMs;
+        while (true) {
+            long checkedAt = System.currentTimeMillis();
+            try {
+                Map<String, Object> found = binanceApiService
+                    .getOrderByClientId(user.getBinanceApiKey(), user.getBinanceSecretKey(), symbol, clientOrderId)
+                    .block(Duration.ofMillis(orderTimeoutMs));
+                if (found != null) {
+                    return found;
+                }
+                if (checkedAt >= expiresAt) {
+                    return null;
+                }
+            } catch (RuntimeException e) {
+                log.warn("주문 {} 조회 실패: {}", clientOrderId, e.getMessage());
+            }
+            
+            long now = System.currentTimeMillis();
+            if (now >= giveUpAt) {
+                throw new IllegalStateException("주문 결과를 확인할 수 없습니다: " + clientOrderId);
+            }
+            sleep(Math.min(Math.max(hedgeDelayMs, 100), Math.max(1, expiresAt - now)));
+        }
+    }
+    
+    /**
+     * 전송 직전에 행 갱신 시각을 남김 - 재시작 후 재확인/정리 시 이 시각 기준으로 recvWindow 만료를 판단
+     */
+    private Order markSubmitting(Order order) {
+        order.setUpdatedAt(LocalDateTime.now());
+        return orderRepository.save(order);
+    }
+    
+    private static long submittedAt(Order order) {
+        LocalDateTime at = order.getUpdatedAt() != null ? order.getUpdatedAt() : order.getCreatedAt();
+        return at != null ? at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : System.currentTimeMillis();
+    }
+    
+    /**
+     * 바이낸스가 처리하지 않았음이 확실한 오류 (4xx) - 5xx, 시간 초과, 연결 오류, 중복 주문은 결과 미확인
+     */
+    private boolean isRejected(Throwable error) {
+        return error instanceof WebClientResponseException responseError
+            && responseError.getStatusCode().is4xxClientError()
+            && !binanceApiService.isDuplicateOrder(error);
+    }
+    
+    private static String describe(Throwable error) {
+        if (error instanceof WebClientResponseException responseError) {
+            return responseError.getStatusCode().value() + " " + responseError.getResponseBodyAsString();
+        }
+        return error.getMessage();
+    }
+    
+    private Order await(CompletableFuture<Order> previous, String clientOrderId) {
+        try {
+            return previous.get(orderTimeoutMs + recvWindowMs + CLOCK_SKEW_MS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("같은 주문의 이전 요청 실패: " + clientOrderId, e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("같은 주문이 아직 처리 중입니다: " + clientOrderId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("주문 대기 중 인터럽트: " + clientOrderId);
+        }
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("주문 조회 대기 중 인터럽트");
+        }
+    }
+    
+    /**
+     * 결정적 newClientOrderId - 같은 사용자/전략/실행 회차/방향/유형이면 항상 같은 값
+     * 바이낸스 형식(^[.A-Z:/a-z0-9_-]{1,36}$)에 맞게 SHA-256 앞 16바이트를 16진수로 사용
+     */
+    public static String clientOrderId(Long userId, Long strategyId, String intentKey,
+                                       Order.OrderSide side, Order.OrderType type) {
+        String source = userId + ":" + strategyId + ":" + intentKey + ":" + side + ":" + type;
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+            return "bt-" + HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * BTC/USDT 형식의 전략 심볼을 바이낸스 심볼(BTCUSDT)로 변환
+     */
+    public static String normalizeSymbol(String symbol) {
+        return symbol.replace("/", "").toUpperCase();
+    }
+    
+    /**
+     * 전송 시도 결과 (응답 또는 오류 중 하나)
+     */
+    private record Attempt(Map<String, Object> response, Throwable error) {
+        
+        static Attempt of(Map<String, Object> response) {
+            return new Attempt(response, null);
+        }
+        
+        static Attempt failed(Throwable error) {
+            return new Attempt(null, error);
+        }
+    }
+    
+    /**
+     * 바이낸스가 주문을 받지 않았음이 확인된 경우
+     */
+    public static class OrderRejectedException extends RuntimeException {
+        
+        public OrderRejectedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
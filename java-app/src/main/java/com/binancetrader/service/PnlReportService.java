@@ -0,0 +1,195 @@
+package com.binancetrader.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 실현 손익 보고서
+ *
+ * fills 를 사용자/심볼/trade ID 순으로 커서 스트리밍하며 선입선출(FIFO) 원가로 실현 손익을 계산한다.
+ * 메모리에는 현재 심볼의 미청산 매수 묶음과 심볼별 요약만 남으므로 체결 수와 관계없이 일정하다.
+ * 수수료는 손익에서 차감하지 않고 commissionAsset 별로 따로 합산한다.
+ * 단, 매수 수수료를 기초 자산으로 낸 경우 실제로 받은 수량이 그만큼 줄어드므로 매수 묶음 수량에서 뺀다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PnlReportService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${trades.report.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * 사용자 손익 보고서 (symbol 이 null 이면 전체 심볼)
+     * 커서 스트리밍은 자동 커밋이 꺼진 트랜잭션 안에서만 동작한다
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> generate(Long userId, String symbol) {
+        String sql = "SELECT symbol, price, qty, commission, commission_asset, is_buyer FROM fills WHERE user_id = ?"
+            + (symbol != null ? " AND symbol = ?" : "")
+            + " ORDER BY symbol, trade_id";
+        Object[] args = symbol != null
+            ? new Object[]{userId, OrderExecutionService.normalizeSymbol(symbol.toUpperCase())}
+            : new Object[]{userId};
+
+        ReportBuilder builder = new ReportBuilder();
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(sql);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, builder);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("userId", userId);
+        report.put("symbols", builder.finish());
+        report.put("feesByAsset", toPlainStrings(builder.totalFees));
+        report.put("fills", builder.totalFills);
+        report.put("generatedAt", System.currentTimeMillis());
+        return report;
+    }
+
+    private static Map<String, String> toPlainStrings(Map<String, BigDecimal> amounts) {
+        Map<String, String> result = new LinkedHashMap<>();
+        amounts.forEach((asset, amount) -> result.put(asset, amount.stripTrailingZeros().toPlainString()));
+        return result;
+    }
+
+    /**
+     * 행 단위로 받아 심볼이 바뀔 때마다 이전 심볼 요약을 확정
+     */
+    private static final class ReportBuilder implements RowCallbackHandler {
+        private final List<Map<String, Object>> symbols = new ArrayList<>();
+        private final Map<String, BigDecimal> totalFees = new TreeMap<>();
+        private long totalFills;
+        private SymbolPnl current;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            String symbol = rs.getString(1);
+            if (current == null || !current.symbol.equals(symbol)) {
+                flush();
+                current = new SymbolPnl(symbol);
+            }
+            BigDecimal commission = rs.getBigDecimal(4);
+            String commissionAsset = rs.getString(5);
+            current.apply(rs.getBigDecimal(2), rs.getBigDecimal(3), rs.getBoolean(6), commission, commissionAsset);
+            totalFees.merge(commissionAsset, commission, BigDecimal::add);
+            totalFills++;
+        }
+
+        List<Map<String, Object>> finish() {
+            flush();
+            return symbols;
+        }
+
+        private void flush() {
+            if (current != null) {
+                symbols.add(current.toMap());
+                current = null;
+            }
+        }
+    }
+
+    /**
+     * 심볼 하나의 FIFO 손익 (금액은 호가 자산 기준)
+     */
+    private static final class SymbolPnl {
+        private final String symbol;
+        /** 미청산 매수 묶음 [수량, 단가] (오래된 것부터) */
+        private final Deque<BigDecimal[]> lots = new ArrayDeque<>();
+        private final Map<String, BigDecimal> fees = new TreeMap<>();
+        private long fills;
+        private BigDecimal boughtQty = BigDecimal.ZERO;
+        private BigDecimal soldQty = BigDecimal.ZERO;
+        private BigDecimal realizedPnl = BigDecimal.ZERO;
+        private BigDecimal unmatchedSellQty = BigDecimal.ZERO;
+
+        SymbolPnl(String symbol) {
+            this.symbol = symbol;
+        }
+
+        void apply(BigDecimal price, BigDecimal qty, boolean buyer, BigDecimal commission, String commissionAsset) {
+            fills++;
+            fees.merge(commissionAsset, commission, BigDecimal::add);
+
+            if (buyer) {
+                boughtQty = boughtQty.add(qty);
+                // 단가는 체결 가격 그대로 두고 수량만 줄인다 (수수료 자체는 feesByAsset 에 따로 잡힘)
+                BigDecimal received = isBaseAsset(commissionAsset) ? qty.subtract(commission) : qty;
+                if (received.signum() > 0) {
+                    lots.addLast(new BigDecimal[]{received, price});
+                }
+                return;
+            }
+
+            soldQty = soldQty.add(qty);
+            BigDecimal remaining = qty;
+            while (remaining.signum() > 0 && !lots.isEmpty()) {
+                BigDecimal[] lot = lots.peekFirst();
+                BigDecimal matched = lot[0].min(remaining);
+                realizedPnl = realizedPnl.add(matched.multiply(price.subtract(lot[1])));
+                remaining = remaining.subtract(matched);
+                lot[0] = lot[0].subtract(matched);
+                if (lot[0].signum() == 0) {
+                    lots.pollFirst();
+                }
+            }
+            // 가져오기 이전에 매수한 물량은 원가를 알 수 없으므로 따로 집계
+            unmatchedSellQty = unmatchedSellQty.add(remaining);
+        }
+
+        /**
+         * 심볼은 기초 자산 + 호가 자산이므로 앞부분이 일치하면 기초 자산으로 본다
+         * (ETHWETH 의 ETH 처럼 호가 자산이 앞부분과도 겹치는 경우는 호가 자산)
+         */
+        private boolean isBaseAsset(String asset) {
+            return asset != null && symbol.startsWith(asset) && !symbol.endsWith(asset);
+        }
+
+        Map<String, Object> toMap() {
+            BigDecimal openQty = BigDecimal.ZERO;
+            BigDecimal openCost = BigDecimal.ZERO;
+            for (BigDecimal[] lot : lots) {
+                openQty = openQty.add(lot[0]);
+                openCost = openCost.add(lot[0].multiply(lot[1]));
+            }
+
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("symbol", symbol);
+            map.put("fills", fills);
+            map.put("boughtQty", plain(boughtQty));
+            map.put("soldQty", plain(soldQty));
+            map.put("realizedPnl", plain(realizedPnl));
+            map.put("openQty", plain(openQty));
+            map.put("openCostBasis", plain(openCost));
+            map.put("unmatchedSellQty", plain(unmatchedSellQty));
+            map.put("feesByAsset", toPlainStrings(fees));
+            return map;
+        }
+
+        private static String plain(BigDecimal value) {
+            return value.signum() == 0 ? "0" : value.stripTrailingZeros().toPlainString();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.binancetrader.service;
+
+import com.binancetrader.util.Lttb;
+import com.binancetrader.util.PriceRingBuffer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 최근 시세 이력 (메모리)
+ *
+ * 시장 스냅샷이 갱신될 때마다 대상 심볼의 마지막 체결가를 심볼별 링 버퍼에 쌓아 두고,
+ * 차트 요청 시 요청 구간을 LTTB 로 원하는 점 수까지 줄여서 돌려준다.
+ * 해상도는 스냅샷 갱신 주기(market.snapshot.refresh-ms)와 같다.
+ */
+@Service
+@Lazy(false)
+@RequiredArgsConstructor
+@Slf4j
+public class PriceHistoryService {
+
+    private final MarketSnapshotService marketSnapshotService;
+
+    @Value("${market.history.symbols:}")
+    private List<String> configuredSymbols;
+
+    @Value("${market.history.window-hours:24}")
+    private int windowHours;
+
+    @Value("${market.history.max-points:2000}")
+    private int maxPoints;
+
+    @Value("${market.snapshot.refresh-ms:5000}")
+    private long refreshMs;
+
+    private Map<String, PriceRingBuffer> buffers;
+    private long lastRecordedVersion = -1;
+
+    @PostConstruct
+    public void init() {
+        List<String> symbols = configuredSymbols == null || configuredSymbols.isEmpty()
+            ? MarketSnapshotService.MAJOR_SYMBOLS : configuredSymbols;
+        // 갱신이 조금씩 밀려도 창 전체를 담을 수 있도록 여유를 둔다
+        int capacity = (int) (windowMs() / Math.max(1, refreshMs)) + 64;
+
+        Map<String, PriceRingBuffer> created = new LinkedHashMap<>();
+        for (String symbol : symbols) {
+            created.put(symbol.trim().toUpperCase(), new PriceRingBuffer(capacity));
+        }
+        buffers = Map.copyOf(created);
+        log.info("시세 이력 버퍼 준비: 심볼 {}개, 심볼당 {}개 ({}시간)", buffers.size(), capacity, windowHours);
+    }
+
+    /**
+     * 새 스냅샷이 있으면 대상 심볼 가격 기록
+     */
+    @Scheduled(fixedDelayString = "${market.history.poll-ms:1000}")
+    public void recordSnapshot() {
+        MarketSnapshotService.Snapshot snapshot = marketSnapshotService.currentSnapshot();
+        if (snapshot == null || snapshot.getVersion() == lastRecordedVersion) {
+            return;
+        }
+        lastRecordedVersion = snapshot.getVersion();
+
+        long timestamp = snapshot.getFetchedAt();
+        for (Map.Entry<String, PriceRingBuffer> entry : buffers.entrySet()) {
+            Map<String, Object> ticker = snapshot.getTickers().get(entry.getKey());
+            if (ticker == null || ticker.get("lastPrice") == null) {
+                continue;
+            }
+            try {
+                entry.getValue().append(timestamp, Double.parseDouble(ticker.get("lastPrice").toString()));
+            } catch (NumberFormatException e) {
+                log.warn("심볼 {} 가격 형식 오류: {}", entry.getKey(), ticker.get("lastPrice"));
+            }
+        }
+    }
+
+    /**
+     * 구간 이력을 points 개 이하로 다운샘플링
+     *
+     * @param from 시작 시각 (null 이면 보관 창의 시작)
+     * @param to   종료 시각 (null 이면 현재)
+     */
+    public Map<String, Object> getHistory(String symbol, int points, Long from, Long to) {
+        String normalized = symbol.toUpperCase();
+        PriceRingBuffer buffer = buffers.get(normalized);
+        if (buffer == null) {
+            throw new RuntimeException("이력을 보관하지 않는 심볼입니다: " + normalized);
+        }
+
+        long now = System.currentTimeMillis();
+        long rangeTo = to != null ? to : now;
+        long rangeFrom = Math.max(from != null ? from : 0, now - windowMs());
+        int threshold = Math.max(3, Math.min(points, maxPoints));
+
+        PriceRingBuffer.Range range = buffer.copyRange(rangeFrom, rangeTo);
+        int[] selected = Lttb.downsample(range.timestamps(), range.prices(), threshold);
+
+        long[] timestamps = new long[selected.length];
+        double[] prices = new double[selected.length];
+        for (int i = 0; i < selected.length; i++) {
+            timestamps[i] = range.timestamps()[selected[i]];
+            prices[i] = range.prices()[selected[i]];
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("symbol", normalized);
+        response.put("from", rangeFrom);
+        response.put("to", rangeTo);
+        response.put("sourcePoints", range.size());
+        response.put("timestamps", timestamps);
+        response.put("prices", prices);
+        return response;
+    }
+
+    private long windowMs() {
+        return windowHours * 3_600_000L;
+    }
+}
@@ -0,0 +1,56 @@
+package com.binancetrader.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 기동 시간 측정 - JVM 시작부터 첫 시세 발행까지 걸린 시간을 기록
+ * startup-benchmark.sh 가 STARTUP_METRIC 로그 라인을 수집한다
+ */
+@Service
+@Lazy(false)
+@RequiredArgsConstructor
+@Slf4j
+public class StartupMetricsService {
+    
+    private final ApplicationContext applicationContext;
+    private final AtomicBoolean firstTickPublished = new AtomicBoolean();
+    
+    @Value("${startup.exit-after-first-tick:false}")
+    private boolean exitAfterFirstTick;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        log.info("STARTUP_METRIC time-to-ready={}ms", elapsedSinceJvmStart());
+    }
+    
+    /**
+     * 시세 발행 시 호출 - 첫 번째 발행만 기록
+     */
+    public void recordTickPublished() {
+        if (!firstTickPublished.compareAndSet(false, true)) {
+            return;
+        }
+        
+        log.info("STARTUP_METRIC time-to-first-tick-published={}ms", elapsedSinceJvmStart());
+        
+        if (exitAfterFirstTick) {
+            // 벤치마크 반복 실행용 - 발행 스레드를 막지 않도록 별도 스레드에서 종료
+            new Thread(() -> System.exit(SpringApplication.exit(applicationContext)), "startup-benchmark-exit").start();
+        }
+    }
+    
+    private static long elapsedSinceJvmStart() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+}
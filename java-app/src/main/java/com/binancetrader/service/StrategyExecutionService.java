@@ -0,0 +1,88 @@
+package com.binancetrader.service;
+
+import com.binancetrader.model.Order;
+import com.binancetrader.model.TradingStrategy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StrategyExecutionService {
+    
+    private static final BigDecimal DEFAULT_GRID_STEP_PERCENTAGE = BigDecimal.ONE;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    
+    private final BinanceApiService binanceApiService;
+    private final OrderExecutionService orderExecutionService;
+    private final StrategyRuntimeService strategyRuntimeService;
+    
+    /**
+     * 사용자 작업 레인으로 작업 전달
+     * 주문 전송/가격 조회처럼 블로킹되는 작업이라 시세를 처리하는 샤드 스레드가 아닌 레인에서 돌리며,
+     * 같은 사용자의 작업은 제출 순서대로 하나씩 실행된다
+     */
+    public void dispatch(Long userId, Runnable task) {
+        strategyRuntimeService.dispatchBlocking(userId, task);
+    }
+    
+    /**
+     * 전략 1회 실행 (스케줄러에서 사용자 작업 레인을 통해 호출)
+     * runKey 는 실행 회차 식별자로, 같은 회차를 다시 실행해도 주문은 한 번만 나간다
+     */
+    public void execute(TradingStrategy strategy, String runKey) {
+        switch (strategy.getType()) {
+            case DCA -> executeDca(strategy, runKey);
+            case GRID_TRADING -> rearmGrid(strategy, runKey);
+            default -> log.warn("스케줄 실행을 지원하지 않는 전략 유형: {} ({})", strategy.getType(), strategy.getId());
+        }
+    }
+    
+    /**
+     * 분할 매수 - 투자 금액만큼 시장가 매수
+     */
+    private void executeDca(TradingStrategy strategy, String runKey) {
+        orderExecutionService.placeOrder(strategy.getUser(), strategy, Order.OrderSide.BUY, Order.OrderType.MARKET,
+            null, strategy.getInvestmentAmount(), null, runKey);
+    }
+    
+    /**
+     * 그리드 재설정 - 이전 회차의 미체결 지정가 매수를 취소하고
+     * 현재가보다 한 칸(takeProfitPercentage, 기본 1%) 아래에 새로 지정가 매수
+     */
+    private void rearmGrid(TradingStrategy strategy, String runKey) {
+        // 이전 주문 취소를 확인하지 못하면 호가 잔고가 중복으로 묶이지 않도록 이번 회차는 건너뛴다
+        if (!orderExecutionService.cancelOpenOrders(strategy.getUser(), strategy,
+                Order.OrderSide.BUY, Order.OrderType.LIMIT)) {
+            log.warn("그리드 재설정 건너뜀 - 이전 주문 취소 미확인: 전략 {}", strategy.getId());
+            return;
+        }
+        
+        String symbol = OrderExecutionService.normalizeSymbol(strategy.getSymbol());
+        Map<String, Object> priceData = binanceApiService.getSymbolPrice(symbol).block(Duration.ofSeconds(5));
+        if (priceData == null || priceData.get("price") == null) {
+            log.warn("그리드 재설정 실패 - 가격 정보 없음: {}", symbol);
+            return;
+        }
+        
+        BigDecimal step = strategy.getTakeProfitPercentage() != null
+            ? strategy.getTakeProfitPercentage() : DEFAULT_GRID_STEP_PERCENTAGE;
+        BigDecimal currentPrice = new BigDecimal(priceData.get("price").toString());
+        BigDecimal limitPrice = currentPrice
+            .multiply(HUNDRED.subtract(step))
+            .divide(HUNDRED, 8, RoundingMode.DOWN)
+            .stripTrailingZeros();
+        BigDecimal quantity = strategy.getInvestmentAmount()
+            .divide(limitPrice, 8, RoundingMode.DOWN)
+            .stripTrailingZeros();
+        
+        orderExecutionService.placeOrder(strategy.getUser(), strategy, Order.OrderSide.BUY, Order.OrderType.LIMIT,
+            quantity, null, limitPrice, runKey);
+    }
+}
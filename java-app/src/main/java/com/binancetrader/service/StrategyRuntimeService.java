@@ -0,0 +1,759 @@
+package com.binancetrader.service;
+
+import com.binancetrader.model.TradingStrategy;
+import com.binancetrader.repository.TradingStrategyRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 다중 사용자 전략 런타임
+ *
+ * 활성 사용자와 전략을 코어 수만큼의 단일 스레드 샤드에 사용자 단위로 나눠 싣는다.
+ * 사용자별 상태는 소유 샤드 스레드에서만 읽고 쓰므로 잠금이 없고, 시세 이벤트는 해당 심볼의
+ * 전략을 가진 샤드로만 전달된다. 샤드 배정/이동은 제어 스레드 하나가 전담하며,
+ * 사용자가 활성화/비활성화되거나 전략이 바뀔 때마다 전략 수 기준으로 샤드 부하를 다시 맞춘다.
+ *
+ * 주문/DB 처럼 블로킹되는 작업은 샤드가 아닌 사용자별 작업 레인(공용 I/O 풀 위의 직렬 실행기)에서
+ * 돌려, 느린 응답 하나가 같은 샤드의 다른 사용자 시세 처리를 막지 않게 한다.
+ * 전략 신호는 전략 소유자 본인에게만 /user/queue/strategy 로 보낸다.
+ */
+@Service
+@Lazy(false)
+@RequiredArgsConstructor
+@Slf4j
+public class StrategyRuntimeService {
+
+    /** convertAndSendToUser 에 쓰는 목적지 (클라이언트는 /user/queue/strategy 를 구독) */
+    private static final String STRATEGY_QUEUE = "/queue/strategy";
+
+    private final TradingStrategyRepository tradingStrategyRepository;
+    private final MarketSnapshotService marketSnapshotService;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Value("${runtime.shards:0}")
+    private int configuredShards;
+
+    @Value("${runtime.io-threads:16}")
+    private int ioThreads;
+
+    private Shard[] shards;
+    private ExecutorService control;
+    private ExecutorService ioPool;
+
+    /** 사용자 → 적재된 런타임 (제어 스레드가 갱신, 작업 전달 시 어느 스레드에서나 조회) */
+    private final Map<Long, UserRuntime> userRuntimes = new ConcurrentHashMap<>();
+    /** 사용자 → 블로킹 작업 레인 (적재된 사용자와 작업이 남은 사용자만 유지) */
+    private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+    /** 심볼 → 해당 심볼 전략을 가진 샤드 목록 (owner 기준, 바뀔 때마다 통째로 교체) */
+    private volatile Map<String, int[]> symbolRoutes = Map.of();
+    /** 시세 이벤트 순번 - 이동 중 넘겨받은 시세가 중복/역순으로 평가되지 않게 한다 */
+    private final AtomicLong priceSequence = new AtomicLong();
+    private long lastRoutedSnapshotVersion = -1;
+
+    // 아래 필드는 제어 스레드에서만 사용
+    private final Map<Long, UserRuntime> userIndex = new HashMap<>();
+    private int[] shardLoads;
+    private LocalDateTime lastSyncAt;
+
+    @PostConstruct
+    public void init() {
+        int shardCount = configuredShards > 0 ? configuredShards : Runtime.getRuntime().availableProcessors();
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+        }
+        shardLoads = new int[shardCount];
+        control = Executors.newSingleThreadExecutor(r -> daemon(r, "strategy-runtime-control"));
+        AtomicInteger ioIndex = new AtomicInteger();
+        ioPool = Executors.newFixedThreadPool(ioThreads, r -> daemon(r, "strategy-io-" + ioIndex.incrementAndGet()));
+        log.info("전략 런타임 샤드 {}개, I/O 스레드 {}개 준비 완료", shardCount, ioThreads);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        control.shutdownNow();
+        for (Shard shard : shards) {
+            shard.executor.shutdown();
+        }
+        ioPool.shutdown();
+        for (Shard shard : shards) {
+            shard.executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        ioPool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 기동 시 활성 사용자 전체 적재
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        control.execute(() -> {
+            try {
+                lastSyncAt = LocalDateTime.now();
+                reloadAll();
+                log.info("전략 런타임 적재 완료: 사용자 {}명, 샤드 부하 {}", userIndex.size(), Arrays.toString(shardLoads));
+            } catch (Exception e) {
+                log.error("전략 런타임 적재 실패: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 전략 변경 반영 - 전략/사용자 updated_at 이 지난 동기화 이후인 사용자만 다시 읽고,
+     * 적재된 전략 수가 DB 와 다르면(삭제 등) 전체를 다시 맞춘다. 실제로 바뀐 사용자만 샤드에서 교체된다
+     */
+    @Scheduled(fixedDelayString = "${runtime.strategy-sync-ms:10000}")
+    public void syncStrategyChanges() {
+        control.execute(() -> {
+            if (lastSyncAt == null) {
+                return;
+            }
+            try {
+                // 다른 트랜잭션이 늦게 커밋한 변경을 놓치지 않도록 한 주기만큼 겹쳐 조회
+                LocalDateTime now = LocalDateTime.now();
+                LocalDateTime since = lastSyncAt.minus(Duration.between(lastSyncAt, now));
+                lastSyncAt = now;
+
+                for (Long userId : tradingStrategyRepository.findUserIdsWithStrategyChangesSince(since)) {
+                    reconcile(userId, tradingStrategyRepository.findActiveStrategiesOfActiveUser(userId));
+                }
+                long loaded = userIndex.values().stream().mapToLong(runtime -> runtime.strategies.size()).sum();
+                if (tradingStrategyRepository.countActiveStrategiesOfActiveUsers() != loaded) {
+                    reloadAll();
+                }
+                rebalance();
+            } catch (Exception e) {
+                log.error("전략 변경 동기화 실패: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 사용자 활성화 상태 변경 반영 (커밋 이후 실행)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserActiveStatusChanged(UserService.ActiveStatusChangedEvent event) {
+        if (Boolean.TRUE.equals(event.active())) {
+            reloadUser(event.userId());
+        } else {
+            control.execute(() -> {
+                unassign(event.userId());
+                rebalance();
+            });
+        }
+    }
+
+    /**
+     * 사용자 전략을 다시 읽어 샤드에 반영 (전략이 없거나 비활성이면 제거)
+     */
+    public void reloadUser(Long userId) {
+        control.execute(() -> {
+            try {
+                reconcile(userId, tradingStrategyRepository.findActiveStrategiesOfActiveUser(userId));
+                rebalance();
+            } catch (Exception e) {
+                log.error("사용자 {} 전략 재적재 실패: {}", userId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 사용자 소유 샤드로 작업 전달 (샤드 상태를 다루는 가벼운 작업용)
+     * 런타임에 적재되지 않은 사용자는 ID 해시로 샤드를 고르고, 이동 중에 원래 샤드로 들어온 작업은
+     * 실행 시점에 새 샤드로 넘긴다
+     */
+    public void dispatch(Long userId, Runnable task) {
+        int owner = ownerOf(userId);
+        shards[owner].executor.execute(() -> runOnShard(userId, owner, task));
+    }
+
+    /**
+     * 사용자 작업 레인으로 블로킹 작업 전달 (주문 전송, DB 조회/저장)
+     * 같은 사용자의 작업은 제출 순서대로 하나씩 실행되고, 다른 사용자 작업과는 I/O 풀에서 병렬로 실행된다
+     */
+    public void dispatchBlocking(Long userId, Runnable task) {
+        // 닫힌 레인(작업이 없어 정리된 레인)을 잡았으면 새 레인으로 다시 시도
+        while (!lanes.computeIfAbsent(userId, Lane::new).offer(task)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private int ownerOf(Long userId) {
+        UserRuntime runtime = userRuntimes.get(userId);
+        return runtime != null ? runtime.owner : Math.floorMod(userId.hashCode(), shards.length);
+    }
+
+    private void runOnShard(Long userId, int shardIndex, Runnable task) {
+        int owner = ownerOf(userId);
+        if (owner != shardIndex) {
+            shards[owner].executor.execute(() -> runOnShard(userId, owner, task));
+            return;
+        }
+        try {
+            task.run();
+        } catch (Exception e) {
+            log.error("사용자 {} 전략 작업 실패: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 시세 이벤트를 해당 심볼을 구독 중인 샤드로만 전달
+     */
+    public void publishPrice(String symbol, double price, long timestamp) {
+        // 순번을 먼저 받고 경로를 읽는다 (경로 교체 시점의 순번보다 크면 새 경로로 전달된 것)
+        long sequence = priceSequence.incrementAndGet();
+        int[] route = symbolRoutes.get(symbol);
+        if (route == null) {
+            return;
+        }
+        for (int shardIndex : route) {
+            Shard shard = shards[shardIndex];
+            shard.executor.execute(() -> shard.onPrice(symbol, price, timestamp, sequence));
+        }
+    }
+
+    /**
+     * 시장 스냅샷이 갱신되면 전략이 걸린 심볼 가격만 샤드로 전달
+     */
+    @Scheduled(fixedDelayString = "${runtime.price-poll-ms:1000}")
+    public void routeSnapshotPrices() {
+        MarketSnapshotService.Snapshot snapshot = marketSnapshotService.currentSnapshot();
+        if (snapshot == null || snapshot.getVersion() == lastRoutedSnapshotVersion) {
+            return;
+        }
+        lastRoutedSnapshotVersion = snapshot.getVersion();
+
+        for (String symbol : symbolRoutes.keySet()) {
+            Map<String, Object> ticker = snapshot.getTickers().get(symbol);
+            if (ticker == null || ticker.get("lastPrice") == null) {
+                continue;
+            }
+            try {
+                publishPrice(symbol, Double.parseDouble(ticker.get("lastPrice").toString()), snapshot.getFetchedAt());
+            } catch (NumberFormatException e) {
+                log.warn("심볼 {} 가격 형식 오류: {}", symbol, ticker.get("lastPrice"));
+            }
+        }
+    }
+
+    /**
+     * 샤드별 사용자/전략/심볼 수
+     */
+    public List<Map<String, Object>> getShardStatus() {
+        Map<String, int[]> routes = symbolRoutes;
+        List<Map<String, Object>> status = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            int symbols = 0;
+            for (int[] route : routes.values()) {
+                for (int shardIndex : route) {
+                    if (shardIndex == shard.index) {
+                        symbols++;
+                    }
+                }
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("shard", shard.index);
+            entry.put("users", userRuntimes.values().stream().filter(runtime -> runtime.owner == shard.index).count());
+            entry.put("strategies", shard.strategyCount);
+            entry.put("symbols", symbols);
+            status.add(entry);
+        }
+        return status;
+    }
+
+    /**
+     * 활성 사용자 전체를 DB 기준으로 맞춤 (제어 스레드)
+     */
+    private void reloadAll() {
+        Map<Long, List<TradingStrategy>> byUser = new LinkedHashMap<>();
+        for (TradingStrategy strategy : tradingStrategyRepository.findAllActiveStrategiesOfActiveUsers()) {
+            byUser.computeIfAbsent(strategy.getUser().getId(), id -> new ArrayList<>()).add(strategy);
+        }
+        for (Long userId : new ArrayList<>(userIndex.keySet())) {
+            if (!byUser.containsKey(userId)) {
+                unassign(userId);
+            }
+        }
+        byUser.forEach(this::reconcile);
+        rebalance();
+    }
+
+    /**
+     * 사용자 전략이 바뀐 경우에만 교체 - 그대로면 기준가 등 런타임 상태를 유지한다 (제어 스레드)
+     */
+    private void reconcile(Long userId, List<TradingStrategy> strategies) {
+        UserRuntime current = userIndex.get(userId);
+        if (current != null && current.versions.equals(UserRuntime.versionsOf(strategies))) {
+            return;
+        }
+        unassign(userId);
+        if (!strategies.isEmpty()) {
+            assign(userId, strategies);
+        }
+    }
+
+    /**
+     * 가장 한가한 샤드에 사용자 배정 (제어 스레드)
+     */
+    private void assign(Long userId, List<TradingStrategy> strategies) {
+        UserRuntime runtime = UserRuntime.of(userId, strategies);
+        int target = lightestShard();
+        runtime.shard = target;
+        runtime.owner = target;
+        userIndex.put(userId, runtime);
+        shardLoads[target] += runtime.weight();
+        userRuntimes.put(userId, runtime);
+
+        Shard shard = shards[target];
+        shard.executor.execute(() -> shard.add(runtime));
+        rebuildRoutes();
+    }
+
+    private void unassign(Long userId) {
+        UserRuntime runtime = userIndex.remove(userId);
+        if (runtime == null) {
+            return;
+        }
+        // 다시 배정되지 않으면 레인도 정리 (남은 작업이 있으면 레인이 비는 시점에 정리된다)
+        lanes.computeIfPresent(userId, (id, lane) -> lane.closeIfIdle() ? null : lane);
+        shardLoads[runtime.shard] -= runtime.weight();
+        userRuntimes.remove(userId, runtime);
+        runtime.retired = true;
+
+        // 이동 중이면 아직 원래 샤드에 있을 수 있으나, 새 샤드에 도착할 때 retired 를 보고 버려진다
+        Shard shard = shards[runtime.shard];
+        shard.executor.execute(() -> shard.remove(runtime));
+        rebuildRoutes();
+    }
+
+    /**
+     * 가장 바쁜 샤드에서 가장 한가한 샤드로, 옮겨도 부하 차이가 줄어드는 사용자만 이동
+     */
+    private void rebalance() {
+        while (true) {
+            int heaviest = 0;
+            int lightest = 0;
+            for (int i = 1; i < shardLoads.length; i++) {
+                if (shardLoads[i] > shardLoads[heaviest]) {
+                    heaviest = i;
+                }
+                if (shardLoads[i] < shardLoads[lightest]) {
+                    lightest = i;
+                }
+            }
+            int gap = shardLoads[heaviest] - shardLoads[lightest];
+
+            UserRuntime candidate = null;
+            for (UserRuntime runtime : userIndex.values()) {
+                // 이동 중인 사용자는 새 샤드에 도착(owner 변경)한 뒤에만 다시 옮긴다
+                if (runtime.shard == heaviest && runtime.owner == runtime.shard && runtime.weight() < gap
+                        && (candidate == null || runtime.weight() > candidate.weight())) {
+                    candidate = runtime;
+                }
+            }
+            if (candidate == null) {
+                break;
+            }
+            migrate(candidate, lightest);
+        }
+    }
+
+    /**
+     * 사용자 이동 - 원래 샤드가 이미 받은 이 사용자 작업을 모두 끝낸 뒤 상태를 떼어 새 샤드 큐로 넘기고,
+     * 그 시점에 작업/시세 라우팅을 바꾼다 (큐를 거치므로 잠금 불필요). 떼어 낸 뒤 원래 샤드에 도착한
+     * 시세는 원래 샤드가 새 샤드로 넘긴다
+     */
+    private void migrate(UserRuntime runtime, int target) {
+        Shard source = shards[runtime.shard];
+        Shard destination = shards[target];
+        shardLoads[runtime.shard] -= runtime.weight();
+        shardLoads[target] += runtime.weight();
+        runtime.shard = target;
+
+        source.executor.execute(() -> {
+            if (!source.remove(runtime)) {
+                // 이동 전에 제거됨 (retired)
+                return;
+            }
+            destination.executor.execute(() -> destination.add(runtime));
+            // 새 샤드의 add 가 먼저 큐에 들어간 뒤에 바꿔야 이후 작업/시세가 상태가 옮겨진 다음에 실행된다
+            runtime.owner = target;
+            rebuildRoutes();
+            source.depart(runtime, priceSequence.get());
+        });
+        log.debug("사용자 {} 샤드 이동: {} → {}", runtime.userId, source.index, target);
+    }
+
+    private int lightestShard() {
+        int lightest = 0;
+        for (int i = 1; i < shardLoads.length; i++) {
+            if (shardLoads[i] < shardLoads[lightest]) {
+                lightest = i;
+            }
+        }
+        return lightest;
+    }
+
+    /**
+     * 시세 경로를 작업을 보낼 샤드(owner) 기준으로 다시 만든다 - 제어 스레드와 이동 중인 샤드 스레드에서
+     * 호출되므로 동시 접근 가능한 필드만 읽고, 나중에 시작한 재구성이 마지막 상태를 반영하도록 직렬화한다
+     */
+    private synchronized void rebuildRoutes() {
+        Map<String, Set<Integer>> bySymbol = new HashMap<>();
+        for (UserRuntime runtime : userRuntimes.values()) {
+            for (StrategyState strategy : runtime.strategies) {
+                bySymbol.computeIfAbsent(strategy.symbol, symbol -> new HashSet<>()).add(runtime.owner);
+            }
+        }
+        Map<String, int[]> routes = new HashMap<>(bySymbol.size() * 2);
+        bySymbol.forEach((symbol, owners) -> routes.put(symbol, owners.stream().mapToInt(Integer::intValue).toArray()));
+        symbolRoutes = routes;
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * 단일 스레드 샤드 - 아래 상태는 이 샤드의 executor 스레드에서만 접근
+     */
+    private final class Shard {
+        private final int index;
+        private final ExecutorService executor;
+        private final Map<Long, UserRuntime> users = new HashMap<>();
+        private final Map<String, List<StrategyState>> strategiesBySymbol = new HashMap<>();
+        /** 심볼 → 이 샤드를 떠난 사용자 (경로 교체 전에 출발한 시세를 새 샤드로 넘기기 위함) */
+        private final Map<String, List<Departure>> departures = new HashMap<>();
+        private volatile int strategyCount;
+
+        Shard(int index) {
+            this.index = index;
+            this.executor = Executors.newSingleThreadExecutor(r -> daemon(r, "strategy-shard-" + index));
+        }
+
+        void add(UserRuntime runtime) {
+            if (runtime.retired) {
+                return;
+            }
+            users.put(runtime.userId, runtime);
+            for (StrategyState strategy : runtime.strategies) {
+                strategiesBySymbol.computeIfAbsent(strategy.symbol, symbol -> new ArrayList<>()).add(strategy);
+            }
+            strategyCount += runtime.strategies.size();
+        }
+
+        /**
+         * 이 샤드에 올라가 있던 경우에만 떼어 내고 true
+         */
+        boolean remove(UserRuntime runtime) {
+            if (!users.remove(runtime.userId, runtime)) {
+                return false;
+            }
+            for (StrategyState strategy : runtime.strategies) {
+                List<StrategyState> list = strategiesBySymbol.get(strategy.symbol);
+                if (list != null) {
+                    list.remove(strategy);
+                    if (list.isEmpty()) {
+                        strategiesBySymbol.remove(strategy.symbol);
+                    }
+                }
+            }
+            strategyCount -= runtime.strategies.size();
+            return true;
+        }
+
+        /**
+         * 떠난 사용자 기록 - routedAt 은 경로를 새 샤드로 바꾼 직후의 시세 순번
+         */
+        void depart(UserRuntime runtime, long routedAt) {
+            departures.values().removeIf(list -> {
+                list.removeIf(departure -> departure.runtime().retired);
+                return list.isEmpty();
+            });
+            for (StrategyState strategy : runtime.strategies) {
+                List<Departure> list = departures.computeIfAbsent(strategy.symbol, symbol -> new ArrayList<>());
+                if (list.stream().noneMatch(departure -> departure.runtime() == runtime)) {
+                    list.add(new Departure(runtime, routedAt));
+                }
+            }
+        }
+
+        void onPrice(String symbol, double price, long timestamp, long sequence) {
+            List<StrategyState> strategies = strategiesBySymbol.get(symbol);
+            if (strategies != null) {
+                for (StrategyState strategy : strategies) {
+                    evaluate(strategy, price, timestamp, sequence);
+                }
+            }
+            forwardToNewOwners(symbol, price, timestamp, sequence);
+        }
+
+        /**
+         * 다른 샤드에서 넘어온 시세를 한 사용자 전략에만 적용 - 그 사이 또 이동했으면 다시 넘긴다
+         */
+        void onForwardedPrice(UserRuntime runtime, String symbol, double price, long timestamp, long sequence) {
+            if (users.get(runtime.userId) != runtime) {
+                int owner = runtime.owner;
+                if (!runtime.retired && owner != index) {
+                    Shard next = shards[owner];
+                    next.executor.execute(() -> next.onForwardedPrice(runtime, symbol, price, timestamp, sequence));
+                }
+                return;
+            }
+            for (StrategyState strategy : runtime.strategies) {
+                if (strategy.symbol.equals(symbol)) {
+                    evaluate(strategy, price, timestamp, sequence);
+                }
+            }
+        }
+
+        /**
+         * 옛 경로로 이 샤드에 온 시세를 떠난 사용자의 새 샤드로 넘긴다. 경로 교체 이후 순번의 시세가
+         * 오면 새 샤드도 이미 직접 받고 있으므로 기록을 지운다
+         */
+        private void forwardToNewOwners(String symbol, double price, long timestamp, long sequence) {
+            List<Departure> list = departures.get(symbol);
+            if (list == null) {
+                return;
+            }
+            for (Iterator<Departure> iterator = list.iterator(); iterator.hasNext(); ) {
+                Departure departure = iterator.next();
+                UserRuntime runtime = departure.runtime();
+                if (runtime.retired || sequence > departure.routedAt()) {
+                    iterator.remove();
+                    continue;
+                }
+                Shard owner = shards[runtime.owner];
+                owner.executor.execute(() -> owner.onForwardedPrice(runtime, symbol, price, timestamp, sequence));
+            }
+            if (list.isEmpty()) {
+                departures.remove(symbol);
+            }
+        }
+
+        private void evaluate(StrategyState strategy, double price, long timestamp, long sequence) {
+            String signal = strategy.evaluate(price, sequence);
+            if (signal != null) {
+                publishSignal(strategy, signal, price, timestamp);
+            }
+        }
+
+        private void publishSignal(StrategyState strategy, String signal, double price, long timestamp) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("strategyId", strategy.strategyId);
+            payload.put("symbol", strategy.symbol);
+            payload.put("signal", signal);
+            payload.put("price", price);
+            payload.put("referencePrice", strategy.previousReference);
+            payload.put("timestamp", timestamp);
+            try {
+                messagingTemplate.convertAndSendToUser(strategy.username, STRATEGY_QUEUE, payload);
+            } catch (Exception e) {
+                log.error("전략 {} 신호 전송 실패: {}", strategy.strategyId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 사용자별 직렬 실행기 - 작업을 하나씩 I/O 풀에 넘기고, 끝나면 다음 작업을 넘긴다
+     * (한 사용자가 풀 스레드를 계속 잡고 있지 않도록 작업마다 다시 제출)
+     * 적재되지 않은 사용자의 레인은 비는 즉시 닫고 맵에서 빼므로, 닫힌 레인에는 작업을 받지 않는다
+     */
+    private final class Lane {
+        private final Long userId;
+        private final Deque<Runnable> queue = new ArrayDeque<>();
+        private boolean running;
+        private boolean closed;
+
+        Lane(Long userId) {
+            this.userId = userId;
+        }
+
+        /**
+         * 작업 추가 - 이미 닫힌 레인이면 false
+         */
+        boolean offer(Runnable task) {
+            synchronized (this) {
+                if (closed) {
+                    return false;
+                }
+                queue.addLast(task);
+                if (running) {
+                    return true;
+                }
+                running = true;
+            }
+            ioPool.execute(this::runNext);
+            return true;
+        }
+
+        /**
+         * 실행 중인 작업이 없으면 닫고 true
+         */
+        synchronized boolean closeIfIdle() {
+            if (running || !queue.isEmpty()) {
+                return false;
+            }
+            closed = true;
+            return true;
+        }
+
+        private void runNext() {
+            Runnable task;
+            synchronized (this) {
+                task = queue.pollFirst();
+            }
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("사용자 {} 작업 실패: {}", userId, e.getMessage());
+            }
+            boolean closedNow = false;
+            synchronized (this) {
+                if (queue.isEmpty()) {
+                    running = false;
+                    closedNow = !userRuntimes.containsKey(userId);
+                    closed = closedNow;
+                    if (!closedNow) {
+                        return;
+                    }
+                }
+            }
+            if (closedNow) {
+                lanes.remove(userId, this);
+                return;
+            }
+            ioPool.execute(this::runNext);
+        }
+    }
+
+    /**
+     * 샤드에 올라간 사용자 한 명의 전략 묶음
+     */
+    private static final class UserRuntime {
+        private final Long userId;
+        private final List<StrategyState> strategies;
+        /** 전략 ID → updated_at (바뀐 전략이 있을 때만 교체하기 위한 비교용) */
+        private final Map<Long, LocalDateTime> versions;
+        /** 배정된 샤드 - 제어 스레드에서만 사용 */
+        private int shard;
+        /** 작업/시세를 보낼 샤드 - 이동 시 원래 샤드에서 상태를 떼어 낸 뒤에 바뀐다 */
+        private volatile int owner;
+        /** 제거됨 - 이동 중에 제거되면 새 샤드에 올리지 않는다 */
+        private volatile boolean retired;
+
+        private UserRuntime(Long userId, List<StrategyState> strategies, Map<Long, LocalDateTime> versions) {
+            this.userId = userId;
+            this.strategies = strategies;
+            this.versions = versions;
+        }
+
+        static UserRuntime of(Long userId, List<TradingStrategy> strategies) {
+            List<StrategyState> states = new ArrayList<>(strategies.size());
+            for (TradingStrategy strategy : strategies) {
+                states.add(new StrategyState(strategy));
+            }
+            return new UserRuntime(userId, states, versionsOf(strategies));
+        }
+
+        static Map<Long, LocalDateTime> versionsOf(List<TradingStrategy> strategies) {
+            Map<Long, LocalDateTime> versions = new HashMap<>(strategies.size() * 2);
+            for (TradingStrategy strategy : strategies) {
+                versions.put(strategy.getId(), strategy.getUpdatedAt());
+            }
+            return versions;
+        }
+
+        int weight() {
+            return Math.max(1, strategies.size());
+        }
+    }
+
+    /**
+     * 전략 하나의 런타임 상태 - 기준가 대비 익절/손절 비율을 넘으면 신호를 내고 기준가를 옮긴다
+     */
+    private static final class StrategyState {
+        private final String username;
+        private final Long strategyId;
+        private final String symbol;
+        private final double takeProfitRatio;
+        private final double stopLossRatio;
+        private double referencePrice;
+        private double previousReference;
+        /** 마지막으로 평가한 시세 순번 - 이보다 오래된 시세는 건너뛴다 */
+        private long lastSequence;
+
+        StrategyState(TradingStrategy strategy) {
+            this.username = strategy.getUser().getUsername();
+            this.strategyId = strategy.getId();
+            this.symbol = OrderExecutionService.normalizeSymbol(strategy.getSymbol());
+            this.takeProfitRatio = ratio(strategy.getTakeProfitPercentage());
+            this.stopLossRatio = ratio(strategy.getStopLossPercentage());
+        }
+
+        String evaluate(double price, long sequence) {
+            if (sequence <= lastSequence) {
+                return null;
+            }
+            lastSequence = sequence;
+            if (referencePrice == 0) {
+                referencePrice = price;
+                return null;
+            }
+            String signal = null;
+            if (takeProfitRatio > 0 && price >= referencePrice * (1 + takeProfitRatio)) {
+                signal = "TAKE_PROFIT";
+            } else if (stopLossRatio > 0 && price <= referencePrice * (1 - stopLossRatio)) {
+                signal = "STOP_LOSS";
+            }
+            if (signal != null) {
+                previousReference = referencePrice;
+                referencePrice = price;
+            }
+            return signal;
+        }
+
+        private static double ratio(BigDecimal percentage) {
+            return percentage != null ? percentage.doubleValue() / 100.0 : 0.0;
+        }
+    }
+
+    /**
+     * 샤드를 떠난 사용자와 경로를 새 샤드로 바꾼 시점의 시세 순번
+     */
+    private record Departure(UserRuntime runtime, long routedAt) {
+    }
+}
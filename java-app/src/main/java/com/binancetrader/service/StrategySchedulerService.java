@@ -0,0 +1,238 @@
+package com.binancetrader.service;
+
+import com.binancetrader.model.StrategySchedule;
+import com.binancetrader.model.TradingStrategy;
+import com.binancetrader.repository.StrategyScheduleRepository;
+import com.binancetrader.repository.TradingStrategyRepository;
+import com.binancetrader.util.TimingWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DCA / 그리드 전략 반복 실행 스케줄러
+ *
+ * 스케줄 상태는 strategy_schedules 테이블에 저장되고, 실행 대기열은 메모리의
+ * 계층형 타이밍 휠로 관리한다. 재시작 시 놓친 실행은 한 번으로 합쳐서
+ * 지터를 준 시각에 실행하므로 한꺼번에 몰리지 않는다.
+ */
+@Service
+@Lazy(false)
+@RequiredArgsConstructor
+@Slf4j
+public class StrategySchedulerService {
+    
+    private final StrategyScheduleRepository scheduleRepository;
+    private final TradingStrategyRepository strategyRepository;
+    private final StrategyExecutionService executionService;
+    
+    @Value("${scheduler.tick-ms:100}")
+    private long tickMs;
+    
+    @Value("${scheduler.wheel-size:512}")
+    private int wheelSize;
+    
+    @Value("${scheduler.catch-up-jitter-ms:30000}")
+    private long catchUpJitterMs;
+    
+    private final Map<Long, TimingWheel.Timeout> timeouts = new ConcurrentHashMap<>();
+    private TimingWheel wheel;
+    private ScheduledExecutorService ticker;
+    
+    /**
+     * 휠은 빈 생성 시 만들어 두므로 시작 전에 등록된 스케줄도 휠에 보관되었다가 구동 후 실행된다
+     */
+    @PostConstruct
+    public void init() {
+        wheel = new TimingWheel(tickMs, wheelSize, System.currentTimeMillis(), this::onExpired);
+    }
+    
+    /**
+     * 휠 구동 스레드 시작 및 저장된 스케줄 복원
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "strategy-timing-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> wheel.advanceTo(System.currentTimeMillis()), tickMs, tickMs, TimeUnit.MILLISECONDS);
+        
+        try {
+            restoreSchedules();
+        } catch (Exception e) {
+            log.error("전략 스케줄 복원 실패: {}", e.getMessage());
+        }
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+    
+    /**
+     * 전략 반복 실행 등록 (이미 있으면 주기 변경)
+     */
+    public StrategySchedule schedule(Long strategyId, long intervalSeconds) {
+        if (intervalSeconds <= 0) {
+            throw new RuntimeException("실행 주기는 0보다 커야 합니다: " + intervalSeconds);
+        }
+        
+        TradingStrategy strategy = strategyRepository.findByIdWithUser(strategyId)
+            .orElseThrow(() -> new RuntimeException("전략을 찾을 수 없습니다: " + strategyId));
+        
+        if (strategy.getType() != TradingStrategy.StrategyType.DCA
+                && strategy.getType() != TradingStrategy.StrategyType.GRID_TRADING) {
+            throw new RuntimeException("반복 실행을 지원하지 않는 전략 유형입니다: " + strategy.getType());
+        }
+        
+        StrategySchedule schedule = scheduleRepository.findByStrategyId(strategyId).orElseGet(StrategySchedule::new);
+        schedule.setStrategy(strategy);
+        schedule.setIntervalSeconds(intervalSeconds);
+        schedule.setNextRunAt(LocalDateTime.now().plusSeconds(intervalSeconds));
+        schedule.setIsActive(true);
+        StrategySchedule saved = scheduleRepository.save(schedule);
+        
+        register(saved.getId(), strategy.getUser().getId(), toEpochMilli(saved.getNextRunAt()));
+        log.info("전략 {} 반복 실행 등록: {}초 주기", strategyId, intervalSeconds);
+        
+        return saved;
+    }
+    
+    /**
+     * 전략 반복 실행 해제
+     */
+    public void unschedule(Long strategyId) {
+        StrategySchedule schedule = scheduleRepository.findByStrategyId(strategyId)
+            .orElseThrow(() -> new RuntimeException("등록된 스케줄이 없습니다: " + strategyId));
+        
+        schedule.setIsActive(false);
+        scheduleRepository.save(schedule);
+        
+        TimingWheel.Timeout timeout = timeouts.remove(schedule.getId());
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        log.info("전략 {} 반복 실행 해제", strategyId);
+    }
+    
+    public int getPendingCount() {
+        return wheel.size();
+    }
+    
+    /**
+     * 저장된 스케줄 복원 - 놓친 실행은 한 번으로 합쳐 지터를 준 시각에 실행
+     */
+    private void restoreSchedules() {
+        List<StrategySchedule> schedules = scheduleRepository.findAllActiveWithStrategy();
+        long now = System.currentTimeMillis();
+        int missed = 0;
+        
+        for (StrategySchedule schedule : schedules) {
+            long runAt = toEpochMilli(schedule.getNextRunAt());
+            if (runAt <= now) {
+                runAt = now + (catchUpJitterMs > 0 ? ThreadLocalRandom.current().nextLong(catchUpJitterMs) : 0);
+                missed++;
+            }
+            register(schedule.getId(), schedule.getStrategy().getUser().getId(), runAt);
+        }
+        
+        log.info("전략 스케줄 {}건 복원 (놓친 실행 {}건은 {}ms 안에 분산 실행)", schedules.size(), missed, catchUpJitterMs);
+    }
+    
+    private void register(Long scheduleId, Long userId, long runAtMs) {
+        TimingWheel.Timeout previous = timeouts.put(scheduleId, newTimeout(scheduleId, userId, runAtMs));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+    
+    private TimingWheel.Timeout newTimeout(Long scheduleId, Long userId, long runAtMs) {
+        // 최소 한 틱 뒤로 등록해야 핸들이 맵에 들어간 뒤에 만료된다
+        long expirationMs = Math.max(runAtMs, System.currentTimeMillis() + wheel.getTickMs());
+        return wheel.schedule(expirationMs, new Slot(scheduleId, userId));
+    }
+    
+    /**
+     * 휠 구동 스레드에서 호출되므로 사용자 작업 레인으로 넘기기만 한다
+     */
+    private void onExpired(TimingWheel.Timeout timeout) {
+        if (timeout.isCancelled()) {
+            return;
+        }
+        Slot slot = (Slot) timeout.getAttachment();
+        executionService.dispatch(slot.userId(), () -> run(slot.scheduleId(), timeout));
+    }
+    
+    private void run(Long scheduleId, TimingWheel.Timeout timeout) {
+        if (timeout.isCancelled() || timeouts.get(scheduleId) != timeout) {
+            return;
+        }
+        
+        StrategySchedule schedule = scheduleRepository.findByIdWithStrategy(scheduleId).orElse(null);
+        if (schedule == null || !schedule.getIsActive()) {
+            timeouts.remove(scheduleId, timeout);
+            return;
+        }
+        
+        TradingStrategy strategy = schedule.getStrategy();
+        // 회차 키는 예정 시각 기준이라 저장 전에 재시작되어 같은 회차를 다시 실행해도 주문 ID 가 같다
+        String runKey = "schedule-" + scheduleId + "-" + toEpochMilli(schedule.getNextRunAt());
+        try {
+            executionService.execute(strategy, runKey);
+        } catch (Exception e) {
+            log.error("전략 {} 실행 실패: {}", strategy.getId(), e.getMessage());
+        }
+        
+        // 다음 실행 시각은 원래 주기 격자에 맞추고, 지나간 회차는 건너뛴다
+        LocalDateTime now = LocalDateTime.now();
+        Duration interval = Duration.ofSeconds(schedule.getIntervalSeconds());
+        LocalDateTime next = schedule.getNextRunAt().plus(interval);
+        if (!next.isAfter(now)) {
+            long skipped = Duration.between(next, now).toMillis() / interval.toMillis() + 1;
+            next = next.plus(interval.multipliedBy(skipped));
+        }
+        
+        // 실행 전에 읽은 엔티티를 통째로 저장하면 그 사이의 해제/주기 변경을 덮어쓰므로 조건부로만 갱신한다
+        int updated = scheduleRepository.recordRun(scheduleId, schedule.getIntervalSeconds(),
+            schedule.getNextRunAt(), next, now);
+        if (updated == 0) {
+            log.info("전략 {} 스케줄이 실행 중에 변경되어 다음 회차를 등록하지 않음", strategy.getId());
+            timeouts.remove(scheduleId, timeout);
+            return;
+        }
+        
+        // 이 회차의 타임아웃이 아직 현재 항목일 때만 교체 (그 사이 해제/재등록되었으면 그쪽을 따른다)
+        TimingWheel.Timeout nextTimeout = newTimeout(scheduleId, strategy.getUser().getId(), toEpochMilli(next));
+        if (!timeouts.replace(scheduleId, timeout, nextTimeout)) {
+            nextTimeout.cancel();
+        }
+    }
+    
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private record Slot(Long scheduleId, Long userId) {
+    }
+}
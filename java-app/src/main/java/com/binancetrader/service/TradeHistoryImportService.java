@@ -0,0 +1,279 @@
+package com.binancetrader.service;
+
+import com.binancetrader.model.User;
+import com.binancetrader.util.BatchJobProgress;
+import com.binancetrader.util.RateLimitedFetcher;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 체결 내역(myTrades) 가져오기
+ *
+ * 심볼마다 DB 에 있는 마지막 trade ID 다음부터 페이지 단위로 받아 CSV 로 모은 뒤,
+ * 일정 행 수마다 Postgres COPY 로 임시 테이블에 적재하고 fills 에 한 번에 옮긴다.
+ * 이미 있는 체결은 건너뛰므로 중단 후 같은 요청을 다시 보내면 이어서 진행된다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TradeHistoryImportService {
+
+    private static final int PAGE_LIMIT = 1000;
+    private static final int MY_TRADES_WEIGHT = 20;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final String FILL_COLUMNS =
+        "user_id, symbol, trade_id, order_id, price, qty, quote_qty, commission, commission_asset, trade_time, is_buyer, is_maker";
+
+    private final BinanceApiService binanceApiService;
+    private final UserService userService;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${trades.import.concurrency:2}")
+    private int concurrency;
+
+    @Value("${trades.import.weight-per-minute:1200}")
+    private int weightPerMinute;
+
+    @Value("${trades.import.batch-rows:20000}")
+    private int batchRows;
+
+    @Value("${trades.import.request-timeout-ms:30000}")
+    private long requestTimeoutMs;
+
+    @Value("${trades.import.retry-base-ms:500}")
+    private long retryBaseMs;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+    private RateLimitedFetcher fetcher;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread thread = new Thread(r, "trade-import-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        fetcher = new RateLimitedFetcher(weightPerMinute, MAX_ATTEMPTS, retryBaseMs, requestTimeoutMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 적재가 끝난 배치까지만 남고, 다음 실행은 마지막 trade ID 다음부터 이어서 받는다
+        executor.shutdownNow();
+    }
+
+    /**
+     * 가져오기 작업 시작 (심볼별로 병렬 실행)
+     */
+    public ImportJob start(Long userId, List<String> symbols) {
+        User user = userService.findById(userId);
+        if (user.getBinanceApiKey() == null || user.getBinanceSecretKey() == null) {
+            throw new RuntimeException("API credentials not configured");
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), userId, symbols);
+        job.setTotal(symbols.size());
+        jobs.put(job.getId(), job);
+        for (String rawSymbol : symbols) {
+            String symbol = OrderExecutionService.normalizeSymbol(rawSymbol.trim().toUpperCase());
+            executor.execute(() -> runSymbol(job, user, symbol));
+        }
+
+        log.info("체결 내역 가져오기 시작 {}: 사용자 {}, 심볼 {}개", job.getId(), userId, symbols.size());
+        return job;
+    }
+
+    public ImportJob getJob(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("가져오기 작업을 찾을 수 없습니다: " + jobId);
+        }
+        return job;
+    }
+
+    private void runSymbol(ImportJob job, User user, String symbol) {
+        try {
+            long imported = importSymbol(user, symbol);
+            job.imported.addAndGet(imported);
+            job.recordCompleted();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.recordFailure(symbol + ": 중단됨");
+        } catch (Exception e) {
+            log.error("체결 내역 가져오기 실패 {} {}: {}", user.getId(), symbol, e.getMessage());
+            job.recordFailure(symbol + ": " + e.getMessage());
+        }
+    }
+
+    private long importSymbol(User user, String symbol) throws InterruptedException, IOException, SQLException {
+        Long lastTradeId = jdbcTemplate.queryForObject(
+            "SELECT MAX(trade_id) FROM fills WHERE user_id = ? AND symbol = ?", Long.class, user.getId(), symbol);
+        long fromId = lastTradeId != null ? lastTradeId + 1 : 0;
+
+        StringBuilder csv = new StringBuilder();
+        int bufferedRows = 0;
+        long imported = 0;
+        while (true) {
+            byte[] page = fetchPage(user, symbol, fromId);
+            PageResult result = appendCsv(page, user.getId(), csv);
+            bufferedRows += result.rows;
+
+            boolean lastPage = result.rows < PAGE_LIMIT;
+            if (bufferedRows >= batchRows || (lastPage && bufferedRows > 0)) {
+                imported += copyIntoFills(csv.toString());
+                csv.setLength(0);
+                bufferedRows = 0;
+            }
+            if (lastPage) {
+                break;
+            }
+            fromId = result.lastTradeId + 1;
+        }
+
+        log.debug("체결 내역 가져오기 완료 {} {}: {}건", user.getId(), symbol, imported);
+        return imported;
+    }
+
+    /**
+     * 한 페이지를 CSV 행으로 변환 - 응답을 Map 으로 만들지 않고 스트리밍 파서로 바로 옮긴다
+     */
+    private PageResult appendCsv(byte[] page, Long userId, StringBuilder csv) throws IOException {
+        PageResult result = new PageResult();
+        try (JsonParser parser = jsonFactory.createParser(page)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("체결 내역 응답 형식이 올바르지 않습니다");
+            }
+            String[] values = new String[11];
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                Arrays.fill(values, null);
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "symbol" -> values[0] = parser.getText();
+                        case "id" -> values[1] = parser.getText();
+                        case "orderId" -> values[2] = parser.getText();
+                        case "price" -> values[3] = parser.getText();
+                        case "qty" -> values[4] = parser.getText();
+                        case "quoteQty" -> values[5] = parser.getText();
+                        case "commission" -> values[6] = parser.getText();
+                        case "commissionAsset" -> values[7] = parser.getText();
+                        case "time" -> values[8] = parser.getText();
+                        case "isBuyer" -> values[9] = parser.getText();
+                        case "isMaker" -> values[10] = parser.getText();
+                        default -> parser.skipChildren();
+                    }
+                }
+                csv.append(userId);
+                for (String value : values) {
+                    if (value == null) {
+                        throw new IOException("체결 내역 필드 누락: " + String.join(",", values));
+                    }
+                    csv.append(',').append(value);
+                }
+                csv.append('\n');
+                result.rows++;
+                result.lastTradeId = Long.parseLong(values[1]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * COPY 로 임시 테이블에 적재한 뒤 fills 로 옮김 (이미 있는 체결은 무시)
+     */
+    private long copyIntoFills(String csv) throws SQLException, IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TEMP TABLE fills_staging (LIKE fills) ON COMMIT DROP");
+
+                CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+                copyManager.copyIn("COPY fills_staging (" + FILL_COLUMNS + ") FROM STDIN WITH (FORMAT csv)",
+                    new StringReader(csv));
+
+                int inserted = statement.executeUpdate("INSERT INTO fills (" + FILL_COLUMNS + ") SELECT "
+                    + FILL_COLUMNS + " FROM fills_staging ON CONFLICT DO NOTHING");
+                connection.commit();
+                return inserted;
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * 한 페이지 조회 (속도 제한/재시도는 RateLimitedFetcher 공통 처리)
+     */
+    private byte[] fetchPage(User user, String symbol, long fromId) throws InterruptedException {
+        return fetcher.fetch(MY_TRADES_WEIGHT,
+            () -> binanceApiService.getMyTradesRaw(
+                user.getBinanceApiKey(), user.getBinanceSecretKey(), symbol, fromId, PAGE_LIMIT),
+            new byte[]{'[', ']'});
+    }
+
+    private static final class PageResult {
+        int rows;
+        long lastTradeId;
+    }
+
+    /**
+     * 가져오기 작업 진행 상황
+     */
+    public static class ImportJob extends BatchJobProgress {
+        private final Long userId;
+        private final List<String> symbols;
+        private final AtomicLong imported = new AtomicLong();
+
+        ImportJob(String id, Long userId, List<String> symbols) {
+            super(id);
+            this.userId = userId;
+            this.symbols = List.copyOf(symbols);
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        @Override
+        protected void describe(Map<String, Object> map) {
+            map.put("userId", userId);
+            map.put("symbols", symbols);
+            map.put("imported", imported.get());
+        }
+    }
+}
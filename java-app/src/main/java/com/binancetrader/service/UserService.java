@@ -4,6 +4,7 @@ import com.binancetrader.model.User;
 import com.binancetrader.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +17,7 @@ import java.util.Optional;
 public class UserService {
     
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * 사용자 ID로 조회
@@ -83,6 +85,8 @@ public class UserService {
         User user = findById(userId);
         user.setIsActive(isActive);
         userRepository.save(user);
+        // 전략 런타임이 커밋 이후 샤드 배정을 다시 맞춘다
+        eventPublisher.publishEvent(new ActiveStatusChangedEvent(userId, isActive));
         
         log.info("사용자 {} 활성화 상태 변경: {}", user.getUsername(), isActive);
     }
@@ -101,4 +105,10 @@ public class UserService {
         
         return existingUser.get();
     }
+    
+    /**
+     * 사용자 활성화 상태 변경 이벤트
+     */
+    public record ActiveStatusChangedEvent(Long userId, Boolean active) {
+    }
 }
\ No newline at end of file
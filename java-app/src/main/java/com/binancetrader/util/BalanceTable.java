@@ -0,0 +1,163 @@
+package com.binancetrader.util;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 사용자 한 명의 잔고 테이블 - 0 이 아닌 자산만 보관
+ *
+ * 자산 이름순으로 정렬된 병렬 배열에 free/locked 를 소수 8자리 고정소수점 long 으로 저장한다.
+ * 적용 결과로 실제 바뀐 자산만 돌려주므로 호출 측은 그 부분만 클라이언트에 전송하면 된다.
+ */
+public class BalanceTable {
+
+    public static final int SCALE = 8;
+
+    private String[] assets = new String[8];
+    private long[] free = new long[8];
+    private long[] locked = new long[8];
+    private int size;
+    private long version;
+
+    /**
+     * 전체 잔고 적용 (/api/v3/account) - 목록에 없거나 0 인 자산은 삭제
+     */
+    public synchronized Delta applySnapshot(Map<String, long[]> balances) {
+        Delta delta = new Delta();
+        for (int i = 0; i < size; i++) {
+            long[] incoming = balances.get(assets[i]);
+            if (incoming == null || (incoming[0] == 0 && incoming[1] == 0)) {
+                delta.removed.add(assets[i]);
+            }
+        }
+        for (String asset : delta.removed) {
+            remove(asset);
+        }
+        applyUpdates(balances, delta);
+        return finish(delta);
+    }
+
+    /**
+     * 현재 잔고 전체 (자산 → [free, locked])
+     */
+    public synchronized Map<String, long[]> snapshot() {
+        Map<String, long[]> result = new LinkedHashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            result.put(assets[i], new long[]{free[i], locked[i]});
+        }
+        return result;
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 바이낸스 잔고 문자열 → 고정소수점 long (long 범위를 넘으면 ArithmeticException)
+     */
+    public static long toFixed(String value) {
+        return new BigDecimal(value).movePointRight(SCALE).longValueExact();
+    }
+
+    public static String toPlainString(long fixed) {
+        BigDecimal value = BigDecimal.valueOf(fixed, SCALE).stripTrailingZeros();
+        return value.signum() == 0 ? "0" : value.toPlainString();
+    }
+
+    private void applyUpdates(Map<String, long[]> balances, Delta delta) {
+        for (Map.Entry<String, long[]> entry : balances.entrySet()) {
+            String asset = entry.getKey();
+            long newFree = entry.getValue()[0];
+            long newLocked = entry.getValue()[1];
+            int index = Arrays.binarySearch(assets, 0, size, asset);
+
+            if (newFree == 0 && newLocked == 0) {
+                if (index >= 0) {
+                    remove(asset);
+                    delta.removed.add(asset);
+                }
+                continue;
+            }
+
+            if (index >= 0) {
+                if (free[index] == newFree && locked[index] == newLocked) {
+                    continue;
+                }
+                free[index] = newFree;
+                locked[index] = newLocked;
+            } else {
+                insert(-index - 1, asset, newFree, newLocked);
+            }
+            delta.changed.put(asset, new long[]{newFree, newLocked});
+        }
+    }
+
+    private Delta finish(Delta delta) {
+        if (!delta.isEmpty()) {
+            version++;
+        }
+        delta.version = version;
+        return delta;
+    }
+
+    private void insert(int position, String asset, long newFree, long newLocked) {
+        if (size == assets.length) {
+            assets = Arrays.copyOf(assets, size * 2);
+            free = Arrays.copyOf(free, size * 2);
+            locked = Arrays.copyOf(locked, size * 2);
+        }
+        System.arraycopy(assets, position, assets, position + 1, size - position);
+        System.arraycopy(free, position, free, position + 1, size - position);
+        System.arraycopy(locked, position, locked, position + 1, size - position);
+        assets[position] = asset;
+        free[position] = newFree;
+        locked[position] = newLocked;
+        size++;
+    }
+
+    private void remove(String asset) {
+        int index = Arrays.binarySearch(assets, 0, size, asset);
+        if (index < 0) {
+            return;
+        }
+        int moved = size - index - 1;
+        System.arraycopy(assets, index + 1, assets, index, moved);
+        System.arraycopy(free, index + 1, free, index, moved);
+        System.arraycopy(locked, index + 1, locked, index, moved);
+        size--;
+        assets[size] = null;
+    }
+
+    /**
+     * 한 번의 적용으로 바뀐 자산 (changed: 자산 → [free, locked], removed: 0 이 된 자산)
+     */
+    public static class Delta {
+        private final Map<String, long[]> changed = new LinkedHashMap<>();
+        private final List<String> removed = new ArrayList<>();
+        private long version;
+
+        public Map<String, long[]> getChanged() {
+            return changed;
+        }
+
+        public List<String> getRemoved() {
+            return removed;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public boolean isEmpty() {
+            return changed.isEmpty() && removed.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.binancetrader.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 단위 작업 여러 개로 나뉜 백그라운드 작업의 진행 상황 (백필/체결 내역 가져오기 공용)
+ *
+ * 전체 작업 수는 작업을 제출하기 전에 {@link #setTotal(int)} 로 확정해야 진행 중에 완료로 보이지 않는다.
+ */
+public abstract class BatchJobProgress {
+
+    private static final int MAX_ERRORS_KEPT = 20;
+
+    private final String id;
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+    protected BatchJobProgress(String id) {
+        this.id = id;
+    }
+
+    public void setTotal(int value) {
+        total.set(value);
+    }
+
+    public void recordCompleted() {
+        completed.incrementAndGet();
+    }
+
+    public void recordSkipped() {
+        skipped.incrementAndGet();
+    }
+
+    public void recordFailure(String error) {
+        failed.incrementAndGet();
+        if (errors.size() < MAX_ERRORS_KEPT) {
+            errors.add(error);
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getTotal() {
+        return total.get();
+    }
+
+    public int getSkipped() {
+        return skipped.get();
+    }
+
+    public boolean isFinished() {
+        return completed.get() + skipped.get() + failed.get() >= total.get();
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("jobId", id);
+        describe(map);
+        map.put("total", total.get());
+        map.put("completed", completed.get());
+        map.put("skipped", skipped.get());
+        map.put("failed", failed.get());
+        map.put("finished", isFinished());
+        synchronized (errors) {
+            map.put("errors", new ArrayList<>(errors));
+        }
+        return map;
+    }
+
+    /**
+     * 작업 종류별 항목 (jobId 다음, 진행 카운터 앞에 들어감)
+     */
+    protected abstract void describe(Map<String, Object> map);
+}
@@ -0,0 +1,240 @@
+package com.binancetrader.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 캔들 시계열 파일 포맷 (심볼/월 단위)
+ *
+ * 헤더 뒤에 컬럼 단위로 값을 이어 쓰고, 전체 본문을 deflate 로 압축한다.
+ * 시각 컬럼은 delta-of-delta, 나머지 컬럼은 delta 로 인코딩한 뒤 zigzag varint 로 기록하므로
+ * 1분봉처럼 간격이 일정하고 값 변화가 작은 데이터는 수 바이트 이하로 줄어든다.
+ */
+public final class KlineFileCodec {
+
+    private static final int MAGIC = 0x4B4C4331; // "KLC1"
+    private static final int FORMAT_VERSION = 1;
+
+    private KlineFileCodec() {
+    }
+
+    /**
+     * 임시 파일에 쓴 뒤 이동하므로 중단되어도 반쯤 쓰인 파일이 남지 않는다
+     */
+    public static void write(Path path, KlineSeries series) throws IOException {
+        Files.createDirectories(path.getParent());
+
+        VarintBuffer body = new VarintBuffer(series.size() * 16 + 64);
+        long[] openTimes = series.getOpenTimes();
+        long previous = 0;
+        long previousDelta = 0;
+        for (int i = 0; i < series.size(); i++) {
+            long delta = openTimes[i] - previous;
+            body.writeSigned(delta - previousDelta);
+            previousDelta = delta;
+            previous = openTimes[i];
+        }
+        writeDeltas(body, series.getTradeCounts(), series.size());
+        for (int c = 0; c < KlineSeries.DECIMAL_COLUMNS; c++) {
+            writeDeltas(body, series.getColumn(c), series.size());
+        }
+
+        byte[] compressed = deflate(body.bytes, body.length);
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeUTF(series.getSymbol());
+            out.writeLong(series.getIntervalMs());
+            out.writeLong(series.getCoverageEndMs());
+            out.writeInt(series.size());
+            for (int c = 0; c < KlineSeries.DECIMAL_COLUMNS; c++) {
+                out.writeByte(series.getScale(c));
+            }
+            out.writeInt(body.length);
+            out.writeInt(compressed.length);
+            out.write(compressed);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static KlineSeries read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            Header header = readHeader(in, path);
+            int rawLength = in.readInt();
+            byte[] compressed = new byte[in.readInt()];
+            in.readFully(compressed);
+
+            VarintReader reader = new VarintReader(inflate(compressed, rawLength));
+            int size = header.size;
+
+            long[] openTimes = new long[size];
+            long previous = 0;
+            long previousDelta = 0;
+            for (int i = 0; i < size; i++) {
+                previousDelta += reader.readSigned();
+                previous += previousDelta;
+                openTimes[i] = previous;
+            }
+            long[] tradeCounts = readDeltas(reader, size);
+            long[][] decimals = new long[KlineSeries.DECIMAL_COLUMNS][];
+            for (int c = 0; c < KlineSeries.DECIMAL_COLUMNS; c++) {
+                decimals[c] = readDeltas(reader, size);
+            }
+
+            return new KlineSeries(header.symbol, header.intervalMs, header.coverageEndMs, size,
+                openTimes, tradeCounts, decimals, header.scales);
+        }
+    }
+
+    /**
+     * 본문을 읽지 않고 구간 끝만 확인 (재시작 시 완료 여부 판단용)
+     */
+    public static long readCoverageEnd(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 256))) {
+            return readHeader(in, path).coverageEndMs;
+        }
+    }
+
+    private static Header readHeader(DataInputStream in, Path path) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("캔들 파일 형식이 아닙니다: " + path);
+        }
+        int version = in.readUnsignedByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("지원하지 않는 캔들 파일 버전: " + version);
+        }
+        Header header = new Header();
+        header.symbol = in.readUTF();
+        header.intervalMs = in.readLong();
+        header.coverageEndMs = in.readLong();
+        header.size = in.readInt();
+        header.scales = new int[KlineSeries.DECIMAL_COLUMNS];
+        for (int c = 0; c < KlineSeries.DECIMAL_COLUMNS; c++) {
+            header.scales[c] = in.readUnsignedByte();
+        }
+        return header;
+    }
+
+    private static void writeDeltas(VarintBuffer body, long[] values, int size) {
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            body.writeSigned(values[i] - previous);
+            previous = values[i];
+        }
+    }
+
+    private static long[] readDeltas(VarintReader reader, int size) {
+        long[] values = new long[size];
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            previous += reader.readSigned();
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    private static byte[] deflate(byte[] data, int length) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            byte[] buffer = new byte[Math.max(64, length / 2)];
+            int written = 0;
+            while (!deflater.finished()) {
+                if (written == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                written += deflater.deflate(buffer, written, buffer.length - written);
+            }
+            return Arrays.copyOf(buffer, written);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, rawLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != rawLength) {
+                throw new IOException("캔들 파일 본문 길이가 맞지 않습니다");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("캔들 파일 압축 해제 실패", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static final class Header {
+        String symbol;
+        long intervalMs;
+        long coverageEndMs;
+        int size;
+        int[] scales;
+    }
+
+    private static final class VarintBuffer {
+        byte[] bytes;
+        int length;
+
+        VarintBuffer(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void writeSigned(long value) {
+            long zigzag = (value << 1) ^ (value >> 63);
+            if (length + 10 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            while ((zigzag & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((zigzag & 0x7F) | 0x80);
+                zigzag >>>= 7;
+            }
+            bytes[length++] = (byte) zigzag;
+        }
+    }
+
+    private static final class VarintReader {
+        final byte[] bytes;
+        int position;
+
+        VarintReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        long readSigned() {
+            long result = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                result |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (result >>> 1) ^ -(result & 1);
+        }
+    }
+}
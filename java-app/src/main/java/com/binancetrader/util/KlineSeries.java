@@ -0,0 +1,143 @@
+package com.binancetrader.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * 캔들(kline) 시계열 - 컬럼별 원시 배열
+ *
+ * 가격/거래량 컬럼은 컬럼마다 정해진 소수 자릿수(scale)로 스케일한 long 으로 보관한다.
+ * 예) scale 이 2 인 컬럼의 12345 는 123.45
+ */
+public class KlineSeries {
+
+    public static final int OPEN = 0;
+    public static final int HIGH = 1;
+    public static final int LOW = 2;
+    public static final int CLOSE = 3;
+    public static final int VOLUME = 4;
+    public static final int QUOTE_VOLUME = 5;
+    public static final int TAKER_BUY_BASE_VOLUME = 6;
+    public static final int TAKER_BUY_QUOTE_VOLUME = 7;
+    public static final int DECIMAL_COLUMNS = 8;
+
+    /** 바이낸스 kline 응답 배열에서 각 소수 컬럼의 위치 */
+    private static final int[] RAW_INDEX = {1, 2, 3, 4, 5, 7, 9, 10};
+    private static final int RAW_OPEN_TIME = 0;
+    private static final int RAW_TRADE_COUNT = 8;
+    private static final int MAX_SCALE = 18;
+    private static final double[] POWERS_OF_TEN = new double[MAX_SCALE + 1];
+
+    static {
+        for (int i = 0; i <= MAX_SCALE; i++) {
+            POWERS_OF_TEN[i] = Math.pow(10, i);
+        }
+    }
+
+    private final String symbol;
+    private final long intervalMs;
+    private final long coverageEndMs;
+    private final int size;
+    private final long[] openTimes;
+    private final long[] tradeCounts;
+    private final long[][] decimals;
+    private final int[] scales;
+
+    public KlineSeries(String symbol, long intervalMs, long coverageEndMs, int size,
+                       long[] openTimes, long[] tradeCounts, long[][] decimals, int[] scales) {
+        this.symbol = symbol;
+        this.intervalMs = intervalMs;
+        this.coverageEndMs = coverageEndMs;
+        this.size = size;
+        this.openTimes = openTimes;
+        this.tradeCounts = tradeCounts;
+        this.decimals = decimals;
+        this.scales = scales;
+    }
+
+    /**
+     * 바이낸스 /api/v3/klines 응답 행으로부터 생성
+     * 컬럼 scale 은 해당 컬럼에서 필요한 최대 소수 자릿수로 정하되 long 범위를 넘지 않게 줄인다
+     */
+    public static KlineSeries fromRows(String symbol, long intervalMs, long coverageEndMs, List<List<Object>> rows) {
+        int size = rows.size();
+        long[] openTimes = new long[size];
+        long[] tradeCounts = new long[size];
+        BigDecimal[][] values = new BigDecimal[DECIMAL_COLUMNS][size];
+        int[] scales = new int[DECIMAL_COLUMNS];
+        BigDecimal[] maxAbs = new BigDecimal[DECIMAL_COLUMNS];
+
+        for (int i = 0; i < size; i++) {
+            List<Object> row = rows.get(i);
+            openTimes[i] = ((Number) row.get(RAW_OPEN_TIME)).longValue();
+            tradeCounts[i] = ((Number) row.get(RAW_TRADE_COUNT)).longValue();
+            for (int c = 0; c < DECIMAL_COLUMNS; c++) {
+                BigDecimal value = new BigDecimal(row.get(RAW_INDEX[c]).toString()).stripTrailingZeros();
+                values[c][i] = value;
+                scales[c] = Math.min(MAX_SCALE, Math.max(scales[c], value.scale()));
+                if (maxAbs[c] == null || value.abs().compareTo(maxAbs[c]) > 0) {
+                    maxAbs[c] = value.abs();
+                }
+            }
+        }
+
+        long[][] decimals = new long[DECIMAL_COLUMNS][size];
+        BigDecimal limit = BigDecimal.valueOf(Long.MAX_VALUE);
+        for (int c = 0; c < DECIMAL_COLUMNS; c++) {
+            while (scales[c] > 0 && maxAbs[c] != null && maxAbs[c].movePointRight(scales[c]).compareTo(limit) > 0) {
+                scales[c]--;
+            }
+            for (int i = 0; i < size; i++) {
+                decimals[c][i] = values[c][i].movePointRight(scales[c]).setScale(0, RoundingMode.HALF_EVEN).longValue();
+            }
+        }
+
+        return new KlineSeries(symbol, intervalMs, coverageEndMs, size, openTimes, tradeCounts, decimals, scales);
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    /**
+     * 이 시계열이 다루는 구간의 끝 (배타적) - 월 끝에 도달했으면 완료된 파일
+     */
+    public long getCoverageEndMs() {
+        return coverageEndMs;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long[] getOpenTimes() {
+        return openTimes;
+    }
+
+    public long[] getTradeCounts() {
+        return tradeCounts;
+    }
+
+    /**
+     * 스케일된 원시 컬럼 (scale 은 {@link #getScale(int)})
+     */
+    public long[] getColumn(int column) {
+        return decimals[column];
+    }
+
+    public int getScale(int column) {
+        return scales[column];
+    }
+
+    /**
+     * 편의용 double 값 (백테스트/차트용)
+     */
+    public double getValue(int column, int index) {
+        return decimals[column][index] / POWERS_OF_TEN[scales[column]];
+    }
+}
@@ -0,0 +1,69 @@
+package com.binancetrader.util;
+
+/**
+ * Largest-Triangle-Three-Buckets 다운샘플링
+ *
+ * 첫 점과 마지막 점은 그대로 두고, 나머지를 (threshold - 2)개 구간으로 나눠 구간마다
+ * 이전 선택 점과 다음 구간 평균점이 이루는 삼각형 넓이가 가장 큰 점 하나를 고른다.
+ * 입력을 한 번만 훑으며 차트 모양(급등락)을 잘 보존한다.
+ */
+public final class Lttb {
+
+    private Lttb() {
+    }
+
+    /**
+     * 선택된 점의 인덱스 (오름차순) - 점 수가 threshold 이하이거나 threshold 가 3 미만이면 전체
+     */
+    public static int[] downsample(long[] x, double[] y, int threshold) {
+        int length = x.length;
+        if (threshold >= length || threshold < 3) {
+            int[] all = new int[length];
+            for (int i = 0; i < length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] selected = new int[threshold];
+        double bucketSize = (double) (length - 2) / (threshold - 2);
+        int a = 0;
+        selected[0] = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // 다음 구간 평균점
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, length);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            // 현재 구간에서 삼각형 넓이가 가장 큰 점
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double pointAX = x[a];
+            double pointAY = y[a];
+            double maxArea = -1;
+            int maxIndex = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((pointAX - avgX) * (y[i] - pointAY) - (pointAX - x[i]) * (avgY - pointAY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = i;
+                }
+            }
+
+            selected[bucket + 1] = maxIndex;
+            a = maxIndex;
+        }
+
+        selected[threshold - 1] = length - 1;
+        return selected;
+    }
+}
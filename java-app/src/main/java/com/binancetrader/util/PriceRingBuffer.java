@@ -0,0 +1,96 @@
+package com.binancetrader.util;
+
+/**
+ * 심볼 하나의 최근 시세 링 버퍼 - 시각/가격을 원시 배열에 순환 저장
+ *
+ * 용량을 넘으면 가장 오래된 값부터 덮어쓰며, 시각은 항상 증가하는 순서로만 받는다.
+ */
+public class PriceRingBuffer {
+
+    private final long[] timestamps;
+    private final double[] prices;
+    private int head;
+    private int size;
+
+    public PriceRingBuffer(int capacity) {
+        this.timestamps = new long[capacity];
+        this.prices = new double[capacity];
+    }
+
+    /**
+     * 시세 추가 - 마지막 시각 이전(또는 같은) 시세는 무시
+     */
+    public synchronized boolean append(long timestamp, double price) {
+        if (size > 0 && timestamp <= timestamps[indexOf(size - 1)]) {
+            return false;
+        }
+        timestamps[head] = timestamp;
+        prices[head] = price;
+        head = (head + 1) % timestamps.length;
+        if (size < timestamps.length) {
+            size++;
+        }
+        return true;
+    }
+
+    /**
+     * [from, to] 구간을 시간순으로 복사
+     */
+    public synchronized Range copyRange(long from, long to) {
+        int start = lowerBound(from);
+        int end = lowerBound(to + 1);
+        int length = Math.max(0, end - start);
+
+        long[] rangeTimestamps = new long[length];
+        double[] rangePrices = new double[length];
+        int first = indexOf(start);
+        int firstPart = Math.min(length, timestamps.length - first);
+        System.arraycopy(timestamps, first, rangeTimestamps, 0, firstPart);
+        System.arraycopy(prices, first, rangePrices, 0, firstPart);
+        if (firstPart < length) {
+            System.arraycopy(timestamps, 0, rangeTimestamps, firstPart, length - firstPart);
+            System.arraycopy(prices, 0, rangePrices, firstPart, length - firstPart);
+        }
+        return new Range(rangeTimestamps, rangePrices);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return timestamps.length;
+    }
+
+    /**
+     * 시각이 from 이상인 첫 위치 (논리 인덱스, 오래된 값이 0)
+     */
+    private int lowerBound(long from) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timestamps[indexOf(mid)] < from) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int indexOf(int logicalIndex) {
+        int oldest = size < timestamps.length ? 0 : head;
+        return (oldest + logicalIndex) % timestamps.length;
+    }
+
+    /**
+     * 복사된 구간 (시간순)
+     */
+    public record Range(long[] timestamps, double[] prices) {
+
+        public int size() {
+            return timestamps.length;
+        }
+    }
+}
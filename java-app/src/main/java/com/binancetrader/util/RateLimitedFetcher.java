@@ -0,0 +1,76 @@
+package com.binancetrader.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * 대량 조회용 바이낸스 요청 실행기 (백필/체결 내역 가져오기 공용)
+ *
+ * 요청마다 가중치 예산을 확보한 뒤 호출하고, 실패 유형에 따라 재시도한다.
+ * - 429/418: Retry-After 만큼 같은 제한기를 쓰는 모든 요청을 멈춘 뒤 재시도
+ * - 5xx/네트워크 오류: 지수 백오프 후 재시도 (최대 시도 횟수까지)
+ * - 그 밖의 4xx: 바로 실패
+ */
+@Slf4j
+public class RateLimitedFetcher {
+
+    private static final long MAX_BACKOFF_MS = 10_000L;
+    private static final long DEFAULT_RETRY_AFTER_MS = 60_000L;
+
+    private final RequestWeightLimiter weightLimiter;
+    private final int maxAttempts;
+    private final long retryBaseMs;
+    private final Duration requestTimeout;
+
+    public RateLimitedFetcher(int weightPerMinute, int maxAttempts, long retryBaseMs, long requestTimeoutMs) {
+        this.weightLimiter = new RequestWeightLimiter(weightPerMinute);
+        this.maxAttempts = maxAttempts;
+        this.retryBaseMs = retryBaseMs;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+    }
+
+    /**
+     * 요청 한 건 실행 - 응답이 비어 있으면 empty 반환
+     */
+    public <T> T fetch(int weight, Supplier<Mono<T>> request, T empty) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            weightLimiter.acquire(weight);
+            try {
+                T result = request.get().block(requestTimeout);
+                return result != null ? result : empty;
+            } catch (WebClientResponseException e) {
+                int status = e.getStatusCode().value();
+                if (status == 429 || status == 418) {
+                    long pauseMs = retryAfterMs(e.getHeaders().getFirst("Retry-After"));
+                    log.warn("바이낸스 속도 제한 응답 ({}), {}ms 대기", status, pauseMs);
+                    weightLimiter.pause(pauseMs);
+                } else if (e.getStatusCode().is4xxClientError() || attempt >= maxAttempts) {
+                    throw e;
+                } else {
+                    Thread.sleep(backoffMs(attempt));
+                }
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                Thread.sleep(backoffMs(attempt));
+            }
+        }
+    }
+
+    long backoffMs(int attempt) {
+        return Math.min(MAX_BACKOFF_MS, retryBaseMs << attempt);
+    }
+
+    static long retryAfterMs(String retryAfter) {
+        try {
+            return retryAfter != null ? Long.parseLong(retryAfter.trim()) * 1000 : DEFAULT_RETRY_AFTER_MS;
+        } catch (NumberFormatException e) {
+            return DEFAULT_RETRY_AFTER_MS;
+        }
+    }
+}
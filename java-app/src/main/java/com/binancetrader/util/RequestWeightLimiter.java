@@ -0,0 +1,66 @@
+package com.binancetrader.util;
+
+/**
+ * 바이낸스 요청 가중치(request weight) 예산 제한기
+ *
+ * 분당 예산을 토큰 버킷으로 나눠 쓰며, 토큰이 모자라면 채워질 때까지 호출 스레드를 대기시킨다.
+ * 429/418 응답을 받으면 {@link #pause(long)} 로 Retry-After 동안 모든 요청을 멈춘다.
+ */
+public class RequestWeightLimiter {
+
+    private final int capacity;
+    private final double refillPerMs;
+    private double tokens;
+    private long lastRefillMs;
+    private long pausedUntilMs;
+
+    public RequestWeightLimiter(int weightPerMinute) {
+        if (weightPerMinute <= 0) {
+            throw new IllegalArgumentException("분당 가중치는 0 보다 커야 합니다: " + weightPerMinute);
+        }
+        this.capacity = weightPerMinute;
+        this.refillPerMs = weightPerMinute / 60_000.0;
+        this.tokens = weightPerMinute;
+        this.lastRefillMs = System.currentTimeMillis();
+    }
+
+    /**
+     * 가중치만큼 예산을 확보할 때까지 대기
+     */
+    public synchronized void acquire(int weight) throws InterruptedException {
+        if (weight > capacity) {
+            throw new IllegalArgumentException("요청 가중치가 분당 예산보다 큽니다: " + weight);
+        }
+        while (true) {
+            long now = System.currentTimeMillis();
+            if (now < pausedUntilMs) {
+                wait(pausedUntilMs - now);
+                continue;
+            }
+            refill(now);
+            if (tokens >= weight) {
+                tokens -= weight;
+                return;
+            }
+            wait(Math.max(1, (long) Math.ceil((weight - tokens) / refillPerMs)));
+        }
+    }
+
+    /**
+     * 서버가 속도 제한을 알렸을 때 지정 시간 동안 모든 요청을 멈추고 예산을 비움
+     */
+    public synchronized void pause(long pauseMs) {
+        long now = System.currentTimeMillis();
+        pausedUntilMs = Math.max(pausedUntilMs, now + pauseMs);
+        tokens = 0;
+        lastRefillMs = pausedUntilMs;
+        notifyAll();
+    }
+
+    private void refill(long now) {
+        if (now > lastRefillMs) {
+            tokens = Math.min(capacity, tokens + (now - lastRefillMs) * refillPerMs);
+            lastRefillMs = now;
+        }
+    }
+}
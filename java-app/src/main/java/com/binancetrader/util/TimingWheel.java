@@ -0,0 +1,248 @@
+package com.binancetrader.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 계층형 타이밍 휠 (Hierarchical Timing Wheel)
+ *
+ * 하위 휠의 한 바퀴가 상위 휠의 한 칸이 되는 구조로, 등록/취소는 O(1) 이며
+ * 만료 시점이 먼 작업은 상위 휠에 들어갔다가 시간이 흐르면서 하위 휠로 내려온다.
+ * 시계는 외부 드라이버가 {@link #advanceTo(long)} 로 진행시키며,
+ * 만료된 작업은 잠금 밖에서 dispatcher 로 전달된다.
+ */
+public class TimingWheel {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final Consumer<Timeout> dispatcher;
+    private final List<Level> levels = new ArrayList<>();
+
+    /** 마지막으로 처리한 틱 시각 (tickMs 단위로 정렬됨) */
+    private long clock;
+    private int pending;
+
+    public TimingWheel(long tickMs, int wheelSize, long startMs, Consumer<Timeout> dispatcher) {
+        if (tickMs <= 0 || wheelSize <= 1) {
+            throw new IllegalArgumentException("tickMs 는 0 보다, wheelSize 는 1 보다 커야 합니다");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.dispatcher = dispatcher;
+        this.clock = startMs - (startMs % tickMs);
+        levels.add(new Level(tickMs, wheelSize, clock));
+    }
+
+    /**
+     * 작업 등록 - 이미 만료된 작업은 즉시 dispatcher 로 전달된다
+     */
+    public Timeout schedule(long expirationMs, Object attachment) {
+        // 틱 경계로 올림해서 만료 시각보다 일찍 실행되지 않도록 한다
+        long deadlineMs = Math.floorDiv(expirationMs + tickMs - 1, tickMs) * tickMs;
+        Timeout timeout = new Timeout(this, expirationMs, deadlineMs, attachment);
+        boolean expired;
+        synchronized (this) {
+            expired = !insert(timeout);
+            if (!expired) {
+                pending++;
+            }
+        }
+        if (expired) {
+            dispatcher.accept(timeout);
+        }
+        return timeout;
+    }
+
+    /**
+     * 지정한 시각까지 시계를 진행시키고 만료된 작업을 전달
+     */
+    public void advanceTo(long nowMs) {
+        List<Timeout> expired = new ArrayList<>();
+        synchronized (this) {
+            while (clock + tickMs <= nowMs) {
+                clock += tickMs;
+                for (Level level : levels) {
+                    level.advanceClock(clock);
+                }
+                // 상위 휠부터 비워야 내려온 작업이 같은 틱 안에서 만료 처리된다
+                for (int i = levels.size() - 1; i >= 0; i--) {
+                    Level level = levels.get(i);
+                    if (clock % level.tickMs == 0) {
+                        level.flush(clock, timeout -> {
+                            if (!insert(timeout)) {
+                                pending--;
+                                expired.add(timeout);
+                            }
+                        });
+                    }
+                }
+            }
+        }
+        for (Timeout timeout : expired) {
+            dispatcher.accept(timeout);
+        }
+    }
+
+    public synchronized int size() {
+        return pending;
+    }
+
+    public long getTickMs() {
+        return tickMs;
+    }
+
+    private synchronized boolean cancel(Timeout timeout) {
+        if (timeout.bucket == null) {
+            return false;
+        }
+        timeout.bucket.remove(timeout);
+        pending--;
+        return true;
+    }
+
+    /**
+     * 알맞은 휠에 삽입 - 만료 시각이 현재 틱 안이면 false
+     */
+    private boolean insert(Timeout timeout) {
+        for (int i = 0; ; i++) {
+            if (i == levels.size()) {
+                Level lower = levels.get(i - 1);
+                levels.add(new Level(lower.interval, wheelSize, lower.currentTime));
+            }
+            Level level = levels.get(i);
+            if (timeout.deadlineMs < level.currentTime + level.tickMs) {
+                return false;
+            }
+            if (timeout.deadlineMs < level.currentTime + level.interval) {
+                level.add(timeout);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 휠 한 단계
+     */
+    private static final class Level {
+        final long tickMs;
+        final long interval;
+        final Bucket[] buckets;
+        long currentTime;
+
+        Level(long tickMs, int wheelSize, long startMs) {
+            this.tickMs = tickMs;
+            this.interval = tickMs * wheelSize;
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket();
+            }
+            this.currentTime = startMs - (startMs % tickMs);
+        }
+
+        void add(Timeout timeout) {
+            long virtualId = timeout.deadlineMs / tickMs;
+            Bucket bucket = buckets[(int) (virtualId % buckets.length)];
+            bucket.expirationMs = virtualId * tickMs;
+            bucket.append(timeout);
+        }
+
+        void advanceClock(long timeMs) {
+            if (timeMs >= currentTime + tickMs) {
+                currentTime = timeMs - (timeMs % tickMs);
+            }
+        }
+
+        void flush(long timeMs, Consumer<Timeout> reinsert) {
+            Bucket bucket = buckets[(int) ((timeMs / tickMs) % buckets.length)];
+            if (bucket.expirationMs <= timeMs) {
+                bucket.drain(reinsert);
+            }
+        }
+    }
+
+    /**
+     * 센티넬 기반 이중 연결 리스트 - 삽입/삭제 O(1)
+     */
+    private static final class Bucket {
+        final Timeout head = new Timeout(null, Long.MIN_VALUE, Long.MIN_VALUE, null);
+        long expirationMs = Long.MAX_VALUE;
+
+        Bucket() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        void append(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.prev = head.prev;
+            timeout.next = head;
+            head.prev.next = timeout;
+            head.prev = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            timeout.prev.next = timeout.next;
+            timeout.next.prev = timeout.prev;
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        void drain(Consumer<Timeout> consumer) {
+            Timeout current = head.next;
+            head.prev = head;
+            head.next = head;
+            expirationMs = Long.MAX_VALUE;
+            while (current != head) {
+                Timeout next = current.next;
+                current.prev = null;
+                current.next = null;
+                current.bucket = null;
+                consumer.accept(current);
+                current = next;
+            }
+        }
+    }
+
+    /**
+     * 등록된 작업 핸들
+     */
+    public static final class Timeout {
+        private final TimingWheel wheel;
+        private final long expirationMs;
+        private final long deadlineMs;
+        private final Object attachment;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+        private volatile boolean cancelled;
+
+        private Timeout(TimingWheel wheel, long expirationMs, long deadlineMs, Object attachment) {
+            this.wheel = wheel;
+            this.expirationMs = expirationMs;
+            this.deadlineMs = deadlineMs;
+            this.attachment = attachment;
+        }
+
+        /**
+         * 취소 - 아직 휠에 남아 있으면 O(1) 로 제거
+         */
+        public boolean cancel() {
+            cancelled = true;
+            return wheel.cancel(this);
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public long getExpirationMs() {
+            return expirationMs;
+        }
+
+        public Object getAttachment() {
+            return attachment;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.binancetrader.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 삼각 차익 탐색용 통화 그래프
+ *
+ * 자산을 정점, 심볼을 간선으로 보고 세 자산이 서로 모두 연결된 삼각형마다 순환 경로 두 개
+ * (A→B→C→A, A→C→B→A)를 미리 만들어 둔다. 호가가 바뀌면 해당 심볼을 지나는 순환만 다시 계산하므로
+ * 전체 시장 호가 스트림에서도 갱신 한 건당 작업량이 작다.
+ *
+ * 호가 배열은 잠금 없이 갱신하므로 한 스레드에서만 {@link #update} 를 호출해야 한다.
+ */
+public class TriangularArbitrageGraph {
+
+    private static final int LEGS = 3;
+
+    private final String[] symbols;
+    private final String[] assets;
+    private final int[] baseAssetOf;
+    private final Map<String, Integer> symbolIndex;
+
+    private final double[] bids;
+    private final double[] asks;
+
+    /** 순환 c 의 k 번째 구간 심볼: cycleSymbols[c * 3 + k] */
+    private final int[] cycleSymbols;
+    /** 순환 c 의 k 번째 구간 출발 자산: cycleAssets[c * 3 + k] */
+    private final int[] cycleAssets;
+    private final int[][] cyclesBySymbol;
+
+    private TriangularArbitrageGraph(String[] symbols, String[] assets, int[] baseAssetOf,
+                                     Map<String, Integer> symbolIndex, int[] cycleSymbols, int[] cycleAssets,
+                                     int[][] cyclesBySymbol) {
+        this.symbols = symbols;
+        this.assets = assets;
+        this.baseAssetOf = baseAssetOf;
+        this.symbolIndex = symbolIndex;
+        this.cycleSymbols = cycleSymbols;
+        this.cycleAssets = cycleAssets;
+        this.cyclesBySymbol = cyclesBySymbol;
+        this.bids = new double[symbols.length];
+        this.asks = new double[symbols.length];
+        clear();
+    }
+
+    /**
+     * 심볼 목록으로 그래프 생성
+     *
+     * @param pairs 심볼 → [기준 자산, 호가 자산]
+     */
+    public static TriangularArbitrageGraph build(Map<String, String[]> pairs) {
+        Map<String, Integer> assetIndex = new HashMap<>();
+        List<String> assetNames = new ArrayList<>();
+        Map<String, Integer> symbolIndex = new HashMap<>(pairs.size() * 2);
+        String[] symbols = new String[pairs.size()];
+        int[] baseAssetOf = new int[pairs.size()];
+        // 자산 → (상대 자산 → 심볼)
+        List<Map<Integer, Integer>> adjacency = new ArrayList<>();
+
+        int s = 0;
+        for (Map.Entry<String, String[]> pair : pairs.entrySet()) {
+            int base = assetIndex.computeIfAbsent(pair.getValue()[0], name -> register(name, assetNames, adjacency));
+            int quote = assetIndex.computeIfAbsent(pair.getValue()[1], name -> register(name, assetNames, adjacency));
+            // 같은 자산 쌍의 심볼이 여럿이면 먼저 등록된 것만 사용
+            if (base == quote || adjacency.get(base).containsKey(quote)) {
+                continue;
+            }
+            symbols[s] = pair.getKey();
+            baseAssetOf[s] = base;
+            symbolIndex.put(pair.getKey(), s);
+            adjacency.get(base).put(quote, s);
+            adjacency.get(quote).put(base, s);
+            s++;
+        }
+        int symbolCount = s;
+
+        // a < b < c 인 삼각형만 한 번씩 찾는다
+        int[] cycleSymbols = new int[64];
+        int[] cycleAssets = new int[64];
+        int[] cycleCountBySymbol = new int[symbolCount];
+        int cycles = 0;
+        for (int a = 0; a < assetNames.size(); a++) {
+            Map<Integer, Integer> neighborsOfA = adjacency.get(a);
+            for (Map.Entry<Integer, Integer> ab : neighborsOfA.entrySet()) {
+                int b = ab.getKey();
+                if (b <= a) {
+                    continue;
+                }
+                Map<Integer, Integer> neighborsOfB = adjacency.get(b);
+                for (Map.Entry<Integer, Integer> bc : neighborsOfB.entrySet()) {
+                    int c = bc.getKey();
+                    if (c <= b) {
+                        continue;
+                    }
+                    Integer ca = neighborsOfA.get(c);
+                    if (ca == null) {
+                        continue;
+                    }
+                    if ((cycles + 2) * LEGS > cycleSymbols.length) {
+                        cycleSymbols = Arrays.copyOf(cycleSymbols, cycleSymbols.length * 2);
+                        cycleAssets = Arrays.copyOf(cycleAssets, cycleAssets.length * 2);
+                    }
+                    int symbolAB = ab.getValue();
+                    int symbolBC = bc.getValue();
+                    // A→B→C→A
+                    setCycle(cycleSymbols, cycleAssets, cycles++, symbolAB, a, symbolBC, b, ca, c);
+                    // A→C→B→A
+                    setCycle(cycleSymbols, cycleAssets, cycles++, ca, a, symbolBC, c, symbolAB, b);
+                    cycleCountBySymbol[symbolAB] += 2;
+                    cycleCountBySymbol[symbolBC] += 2;
+                    cycleCountBySymbol[ca] += 2;
+                }
+            }
+        }
+
+        int[][] cyclesBySymbol = new int[symbolCount][];
+        for (int i = 0; i < symbolCount; i++) {
+            cyclesBySymbol[i] = new int[cycleCountBySymbol[i]];
+        }
+        int[] filled = new int[symbolCount];
+        for (int cycle = 0; cycle < cycles; cycle++) {
+            for (int k = 0; k < LEGS; k++) {
+                int symbol = cycleSymbols[cycle * LEGS + k];
+                cyclesBySymbol[symbol][filled[symbol]++] = cycle;
+            }
+        }
+
+        return new TriangularArbitrageGraph(
+            Arrays.copyOf(symbols, symbolCount),
+            assetNames.toArray(new String[0]),
+            Arrays.copyOf(baseAssetOf, symbolCount),
+            symbolIndex,
+            Arrays.copyOf(cycleSymbols, cycles * LEGS),
+            Arrays.copyOf(cycleAssets, cycles * LEGS),
+            cyclesBySymbol);
+    }
+
+    /**
+     * 심볼 인덱스 (그래프에 없는 심볼이면 -1)
+     */
+    public int indexOf(String symbol) {
+        Integer index = symbolIndex.get(symbol);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * 최우선 호가 갱신 후 이 심볼을 지나는 순환 중 수수료 차감 수익률이 기준을 넘는 것을 알린다
+     *
+     * @param feeMultiplier 세 구간 수수료를 모두 뺀 배율 ((1 - fee)^3)
+     * @param minProfitRate 알릴 최소 순수익률
+     * @return 다시 계산한 순환 수
+     */
+    public int update(int symbol, double bid, double ask, double feeMultiplier, double minProfitRate,
+                      OpportunityListener listener) {
+        bids[symbol] = bid;
+        asks[symbol] = ask;
+
+        int[] cycles = cyclesBySymbol[symbol];
+        double threshold = 1.0 + minProfitRate;
+        for (int cycle : cycles) {
+            double rate = grossRate(cycle) * feeMultiplier;
+            if (rate > threshold) {
+                listener.onOpportunity(cycle, rate - 1.0);
+            }
+        }
+        return cycles.length;
+    }
+
+    /**
+     * 수수료를 빼기 전 순환 환율 (호가가 없는 구간이 있으면 0)
+     */
+    public double grossRate(int cycle) {
+        double rate = 1.0;
+        int offset = cycle * LEGS;
+        for (int k = 0; k < LEGS; k++) {
+            rate *= legRate(cycleSymbols[offset + k], cycleAssets[offset + k]);
+        }
+        return rate;
+    }
+
+    /**
+     * 모든 호가 초기화 (스트림 재연결 시 오래된 호가로 오탐하지 않도록)
+     */
+    public void clear() {
+        Arrays.fill(bids, 0.0);
+        Arrays.fill(asks, 0.0);
+    }
+
+    public int getSymbolCount() {
+        return symbols.length;
+    }
+
+    public int getAssetCount() {
+        return assets.length;
+    }
+
+    public int getCycleCount() {
+        return cycleSymbols.length / LEGS;
+    }
+
+    /**
+     * 순환 경로 자산 (출발 자산으로 끝남)
+     */
+    public List<String> pathOf(int cycle) {
+        int offset = cycle * LEGS;
+        return List.of(assets[cycleAssets[offset]], assets[cycleAssets[offset + 1]],
+            assets[cycleAssets[offset + 2]], assets[cycleAssets[offset]]);
+    }
+
+    /**
+     * 순환 구간별 주문 (심볼, 매수/매도, 사용 호가)
+     */
+    public List<Map<String, Object>> legsOf(int cycle) {
+        List<Map<String, Object>> legs = new ArrayList<>(LEGS);
+        int offset = cycle * LEGS;
+        for (int k = 0; k < LEGS; k++) {
+            int symbol = cycleSymbols[offset + k];
+            boolean sell = baseAssetOf[symbol] == cycleAssets[offset + k];
+            Map<String, Object> leg = new HashMap<>(4);
+            leg.put("symbol", symbols[symbol]);
+            leg.put("side", sell ? "SELL" : "BUY");
+            leg.put("price", sell ? bids[symbol] : asks[symbol]);
+            legs.add(leg);
+        }
+        return legs;
+    }
+
+    /**
+     * 출발 자산 1 단위를 이 심볼로 바꿨을 때 받는 양 - 기준 자산을 팔면 bid, 사면 1/ask
+     */
+    private double legRate(int symbol, int fromAsset) {
+        if (baseAssetOf[symbol] == fromAsset) {
+            return bids[symbol];
+        }
+        double ask = asks[symbol];
+        return ask > 0 ? 1.0 / ask : 0.0;
+    }
+
+    private static void setCycle(int[] cycleSymbols, int[] cycleAssets, int cycle,
+                                 int symbol0, int asset0, int symbol1, int asset1, int symbol2, int asset2) {
+        int offset = cycle * LEGS;
+        cycleSymbols[offset] = symbol0;
+        cycleSymbols[offset + 1] = symbol1;
+        cycleSymbols[offset + 2] = symbol2;
+        cycleAssets[offset] = asset0;
+        cycleAssets[offset + 1] = asset1;
+        cycleAssets[offset + 2] = asset2;
+    }
+
+    private static int register(String name, List<String> assetNames, List<Map<Integer, Integer>> adjacency) {
+        assetNames.add(name);
+        adjacency.add(new HashMap<>());
+        return assetNames.size() - 1;
+    }
+
+    @FunctionalInterface
+    public interface OpportunityListener {
+        void onOpportunity(int cycle, double netProfitRate);
+    }
+}
@@ -0,0 +1,64 @@
+-- 초기 스키마 (모든 프로파일에서 기동 시 Flyway 가 적용, Hibernate 는 검증만)
+
+CREATE TABLE IF NOT EXISTS users (
+    id                 BIGSERIAL PRIMARY KEY,
+    username           VARCHAR(255) NOT NULL UNIQUE,
+    password           VARCHAR(255) NOT NULL,
+    email              VARCHAR(255) NOT NULL UNIQUE,
+    binance_api_key    VARCHAR(255),
+    binance_secret_key VARCHAR(255),
+    is_active          BOOLEAN      NOT NULL,
+    created_at         TIMESTAMP(6) NOT NULL,
+    updated_at         TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS trading_strategies (
+    id                     BIGSERIAL PRIMARY KEY,
+    user_id                BIGINT       NOT NULL REFERENCES users (id),
+    name                   VARCHAR(255) NOT NULL,
+    symbol                 VARCHAR(255) NOT NULL,
+    type                   VARCHAR(255) NOT NULL,
+    buy_condition          TEXT,
+    sell_condition         TEXT,
+    investment_amount      NUMERIC(19, 8),
+    stop_loss_percentage   NUMERIC(5, 2),
+    take_profit_percentage NUMERIC(5, 2),
+    is_active              BOOLEAN      NOT NULL,
+    created_at             TIMESTAMP(6) NOT NULL,
+    updated_at             TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS orders (
+    id                 BIGSERIAL PRIMARY KEY,
+    user_id            BIGINT       NOT NULL REFERENCES users (id),
+    strategy_id        BIGINT REFERENCES trading_strategies (id),
+    binance_order_id   VARCHAR(255),
+    symbol             VARCHAR(255) NOT NULL,
+    side               VARCHAR(255) NOT NULL,
+    type               VARCHAR(255) NOT NULL,
+    status             VARCHAR(255) NOT NULL,
+    quantity           NUMERIC(19, 8),
+    price              NUMERIC(19, 8),
+    executed_quantity  NUMERIC(19, 8),
+    executed_price     NUMERIC(19, 8),
+    commission         NUMERIC(19, 8),
+    commission_asset   VARCHAR(255),
+    created_at         TIMESTAMP(6) NOT NULL,
+    updated_at         TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS strategy_schedules (
+    id               BIGSERIAL PRIMARY KEY,
+    strategy_id      BIGINT       NOT NULL UNIQUE REFERENCES trading_strategies (id),
+    interval_seconds BIGINT       NOT NULL,
+    next_run_at      TIMESTAMP(6) NOT NULL,
+    last_run_at      TIMESTAMP(6),
+    run_count        BIGINT       NOT NULL,
+    is_active        BOOLEAN      NOT NULL,
+    created_at       TIMESTAMP(6) NOT NULL,
+    updated_at       TIMESTAMP(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_trading_strategies_user_id ON trading_strategies (user_id);
+CREATE INDEX IF NOT EXISTS idx_orders_user_id_created_at ON orders (user_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_orders_binance_order_id ON orders (binance_order_id);
@@ -0,0 +1,18 @@
+-- 체결 내역 (바이낸스 myTrades 가져오기, JPA 엔티티 없이 COPY 로 적재)
+-- 심볼별 trade_id 는 시간순으로 증가하므로 기본 키 순서가 곧 손익 계산 순서
+
+CREATE TABLE IF NOT EXISTS fills (
+    user_id          BIGINT          NOT NULL REFERENCES users (id),
+    symbol           VARCHAR(32)     NOT NULL,
+    trade_id         BIGINT          NOT NULL,
+    order_id         BIGINT          NOT NULL,
+    price            NUMERIC(38, 18) NOT NULL,
+    qty              NUMERIC(38, 18) NOT NULL,
+    quote_qty        NUMERIC(38, 18) NOT NULL,
+    commission       NUMERIC(38, 18) NOT NULL,
+    commission_asset VARCHAR(32)     NOT NULL,
+    trade_time       BIGINT          NOT NULL, -- 바이낸스 체결 시각 (epoch ms)
+    is_buyer         BOOLEAN         NOT NULL,
+    is_maker         BOOLEAN         NOT NULL,
+    PRIMARY KEY (user_id, symbol, trade_id)
+);
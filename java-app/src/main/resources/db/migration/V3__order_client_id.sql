@@ -0,0 +1,6 @@
+-- 주문 멱등 전송용 newClientOrderId
+-- 전송 전에 먼저 기록하므로 같은 실행 회차의 주문은 재시작 후에도 한 번만 전송된다
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS client_order_id VARCHAR(36);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_orders_client_order_id ON orders (client_order_id);
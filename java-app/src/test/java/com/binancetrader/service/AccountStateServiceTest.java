@@ -0,0 +1,124 @@
+package com.binancetrader.service;
+
+import com.binancetrader.model.User;
+import com.binancetrader.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 잔고 조회 만료, 구독자 없는 테이블 정리, 인증 주체 기준 구독 확인
+ */
+class AccountStateServiceTest {
+
+    private final BinanceApiService binanceApiService = mock(BinanceApiService.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private AccountStateService service;
+    private User alice;
+
+    @BeforeEach
+    void setUp() {
+        service = new AccountStateService(binanceApiService, userRepository, messagingTemplate);
+        ReflectionTestUtils.setField(service, "pollMs", 60_000L);
+
+        alice = new User();
+        alice.setId(1L);
+        alice.setUsername("alice");
+        alice.setBinanceApiKey("key");
+        alice.setBinanceSecretKey("secret");
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+        when(userRepository.findAllById(any())).thenReturn(List.of(alice));
+        accountReturns("1.5");
+    }
+
+    @Test
+    void restReadRefreshesOnceTableIsOlderThanPollInterval() {
+        assertThat(balanceOf(service.getBalances(alice).block())).isEqualTo("1.5");
+        accountReturns("2");
+        // 조회 주기 안에서는 캐시된 테이블
+        assertThat(balanceOf(service.getBalances(alice).block())).isEqualTo("1.5");
+
+        ReflectionTestUtils.setField(service, "pollMs", 0L);
+        assertThat(balanceOf(service.getBalances(alice).block())).isEqualTo("2");
+        verify(binanceApiService, times(2)).getAccountInfo("key", "secret");
+    }
+
+    @Test
+    void pollDropsTablesWithoutSubscribersOnceExpired() {
+        service.getBalances(alice).block();
+        service.pollSubscribedAccounts();
+        assertThat(tables()).containsKey(1L);
+
+        ReflectionTestUtils.setField(service, "pollMs", 0L);
+        service.pollSubscribedAccounts();
+        assertThat(tables()).isEmpty();
+        verify(binanceApiService, times(1)).getAccountInfo(anyString(), anyString());
+    }
+
+    @Test
+    void subscriptionIsBoundToAuthenticatedUser() {
+        service.onSubscribe(subscribe("/user/queue/account", () -> "alice"));
+
+        verify(messagingTemplate).convertAndSendToUser(eq("alice"), eq("/queue/account"), any(Object.class));
+        service.pollSubscribedAccounts();
+        verify(binanceApiService, times(2)).getAccountInfo("key", "secret");
+    }
+
+    @Test
+    void ignoresUserIdTopicsAndAnonymousSessions() {
+        service.onSubscribe(subscribe("/topic/account/1", () -> "mallory"));
+        service.onSubscribe(subscribe("/user/queue/account", null));
+        service.pollSubscribedAccounts();
+
+        verify(userRepository, never()).findByUsername(anyString());
+        verify(binanceApiService, never()).getAccountInfo(anyString(), anyString());
+    }
+
+    private void accountReturns(String free) {
+        when(binanceApiService.getAccountInfo("key", "secret")).thenReturn(Mono.just(Map.of("balances",
+            List.of(Map.of("asset", "BTC", "free", free, "locked", "0")))));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Object> tables() {
+        return (Map<Long, Object>) ReflectionTestUtils.getField(service, "tables");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String balanceOf(Map<String, Object> payload) {
+        Map<String, Map<String, String>> balances = (Map<String, Map<String, String>>) payload.get("balances");
+        return balances.get("BTC").get("free");
+    }
+
+    private static SessionSubscribeEvent subscribe(String destination, Principal principal) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(destination);
+        accessor.setSessionId("session-1");
+        accessor.setSubscriptionId("sub-1");
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        return new SessionSubscribeEvent(AccountStateServiceTest.class, message, principal);
+    }
+}
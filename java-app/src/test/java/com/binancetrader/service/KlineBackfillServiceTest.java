@@ -0,0 +1,187 @@
+package com.binancetrader.service;
+
+import com.binancetrader.util.KlineSeries;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 로컬 스텁 서버를 바이낸스 대신 두고 백필/재시도/이어받기 확인
+ */
+class KlineBackfillServiceTest {
+
+    private static final long MINUTE = 60_000L;
+
+    @TempDir
+    Path dataDir;
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    /** 앞쪽 요청에 돌려줄 오류 상태 코드 (순서대로 소비) */
+    private final List<Integer> injectedStatuses = new CopyOnWriteArrayList<>();
+    private KlineBackfillService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v3/klines", this::handleKlines);
+        server.start();
+
+        BinanceApiService binanceApiService = new BinanceApiService();
+        ReflectionTestUtils.setField(binanceApiService, "baseUrl",
+            "http://127.0.0.1:" + server.getAddress().getPort());
+
+        service = new KlineBackfillService(binanceApiService);
+        ReflectionTestUtils.setField(service, "dataDir", dataDir.toString());
+        ReflectionTestUtils.setField(service, "concurrency", 2);
+        ReflectionTestUtils.setField(service, "weightPerMinute", 60_000);
+        ReflectionTestUtils.setField(service, "requestTimeoutMs", 5_000L);
+        ReflectionTestUtils.setField(service, "retryBaseMs", 100L);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void backfillsWholeMonthAndSkipsItOnRerun() throws Exception {
+        YearMonth month = YearMonth.of(2024, 2);
+        KlineBackfillService.BackfillJob job = service.start(List.of("btcusdt"), month, month);
+        assertThat(job.toMap().get("total")).isEqualTo(1);
+        awaitFinished(job);
+
+        assertThat(job.toMap()).containsEntry("completed", 1).containsEntry("failed", 0);
+        KlineSeries series = service.load("BTCUSDT", month);
+        assertThat(series.size()).isEqualTo(29 * 1440);
+        assertThat(series.getOpenTimes()[0]).isEqualTo(startOf(month));
+        assertThat(series.getCoverageEndMs()).isEqualTo(startOf(month.plusMonths(1)));
+        assertThat(requests.get()).isEqualTo(42);
+
+        // 같은 요청을 다시 보내면 완료된 월은 받지 않는다
+        int before = requests.get();
+        KlineBackfillService.BackfillJob rerun = service.start(List.of("BTCUSDT"), month, month);
+        assertThat(rerun.isFinished()).isTrue();
+        assertThat(rerun.toMap()).containsEntry("total", 1).containsEntry("skipped", 1);
+        assertThat(requests.get()).isEqualTo(before);
+    }
+
+    @Test
+    void resumesOnlyMissingMonths() throws Exception {
+        YearMonth january = YearMonth.of(2023, 1);
+        awaitFinished(service.start(List.of("ETHUSDT"), january, january));
+        int before = requests.get();
+
+        KlineBackfillService.BackfillJob job = service.start(List.of("ETHUSDT"), january, january.plusMonths(1));
+        assertThat(job.toMap()).containsEntry("total", 2).containsEntry("skipped", 1);
+        assertThat(job.isFinished()).isFalse();
+        awaitFinished(job);
+
+        assertThat(job.toMap()).containsEntry("completed", 1);
+        assertThat(requests.get() - before).isEqualTo(41);
+    }
+
+    @Test
+    void retriesServerErrorsWithBackoffAndHonoursRetryAfter() throws Exception {
+        injectedStatuses.addAll(List.of(500, 503, 429));
+        YearMonth month = YearMonth.of(2022, 6);
+
+        long start = System.currentTimeMillis();
+        KlineBackfillService.BackfillJob job = service.start(List.of("BNBUSDT"), month, month);
+        awaitFinished(job);
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertThat(job.toMap()).containsEntry("completed", 1).containsEntry("failed", 0);
+        assertThat(service.load("BNBUSDT", month).size()).isEqualTo(30 * 1440);
+        // 5xx 두 번의 백오프(200ms + 400ms)와 Retry-After 1초를 기다려야 한다
+        assertThat(elapsed).isGreaterThanOrEqualTo(1_600L);
+    }
+
+    @Test
+    void failsFastOnClientErrors() throws Exception {
+        injectedStatuses.add(400);
+        YearMonth month = YearMonth.of(2022, 7);
+
+        KlineBackfillService.BackfillJob job = service.start(List.of("BADSYMBOL"), month, month);
+        awaitFinished(job);
+
+        assertThat(job.toMap()).containsEntry("failed", 1);
+        assertThat(requests.get()).isEqualTo(1);
+    }
+
+    private void handleKlines(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        if (!injectedStatuses.isEmpty()) {
+            int status = injectedStatuses.remove(0);
+            if (status == 429) {
+                exchange.getResponseHeaders().add("Retry-After", "1");
+            }
+            respond(exchange, status, "{\"code\":-1,\"msg\":\"injected\"}");
+            return;
+        }
+
+        Map<String, String> query = new HashMap<>();
+        for (String pair : exchange.getRequestURI().getQuery().split("&")) {
+            String[] parts = pair.split("=", 2);
+            query.put(parts[0], parts[1]);
+        }
+        long startTime = Long.parseLong(query.get("startTime"));
+        long endTime = Long.parseLong(query.get("endTime"));
+        int limit = Integer.parseInt(query.get("limit"));
+
+        StringBuilder body = new StringBuilder("[");
+        long openTime = (startTime + MINUTE - 1) / MINUTE * MINUTE;
+        for (int i = 0; i < limit && openTime <= endTime; i++, openTime += MINUTE) {
+            if (i > 0) {
+                body.append(',');
+            }
+            String price = "100." + (openTime / MINUTE % 100);
+            body.append('[').append(openTime).append(",\"").append(price).append("\",\"").append(price)
+                .append("\",\"").append(price).append("\",\"").append(price).append("\",\"1.5\",")
+                .append(openTime + MINUTE - 1).append(",\"150.0\",").append(i % 7).append(",\"0.5\",\"50.0\",\"0\"]");
+        }
+        respond(exchange, 200, body.append(']').toString());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void awaitFinished(KlineBackfillService.BackfillJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!job.isFinished()) {
+            assertThat(System.currentTimeMillis()).as("백필 작업 시간 초과").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private static long startOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
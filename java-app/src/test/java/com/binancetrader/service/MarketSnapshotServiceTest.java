@@ -0,0 +1,80 @@
+package com.binancetrader.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 스냅샷 유무와 관계없이 잘못된 심볼이 같은 방식으로 걸러지는지 확인
+ */
+class MarketSnapshotServiceTest {
+
+    private static final byte[] TICKERS = """
+        [{"symbol":"BTCUSDT","lastPrice":"50000.00"},{"symbol":"ETHUSDT","lastPrice":"3000.00"}]
+        """.getBytes(StandardCharsets.UTF_8);
+
+    private final BinanceApiService binanceApiService = mock(BinanceApiService.class);
+    private MarketSnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new MarketSnapshotService(binanceApiService, new ObjectMapper());
+        ReflectionTestUtils.setField(service, "priceMaxAgeMs", 15_000L);
+        ReflectionTestUtils.setField(service, "priceMaxSymbols", 100);
+        // 바이낸스처럼 잘못된 심볼이 하나라도 섞이면 일괄 조회 전체가 실패
+        when(binanceApiService.getSymbolPrices(any())).thenAnswer(invocation -> {
+            List<String> symbols = List.copyOf(invocation.getArgument(0));
+            if (symbols.contains("NOPEUSDT")) {
+                return Mono.error(new IllegalStateException("400 Invalid symbol"));
+            }
+            return Mono.just(symbols.stream().map(symbol -> Map.<String, Object>of("symbol", symbol, "price", "1")).toList());
+        });
+    }
+
+    @Test
+    void coldStartWaitsForFirstSnapshotAndValidatesLikeWarmStart() {
+        when(binanceApiService.get24hrTickerRaw()).thenReturn(Mono.just(TICKERS));
+
+        Map<String, Object> cold = service.getPrices(List.of("btcusdt", "NOPEUSDT", "ETHUSDT")).block();
+        Map<String, Object> warm = service.getPrices(List.of("btcusdt", "NOPEUSDT", "ETHUSDT")).block();
+
+        assertThat(prices(cold)).containsOnlyKeys("BTCUSDT", "ETHUSDT");
+        assertThat(prices(cold).get("BTCUSDT")).containsEntry("price", "50000.00").containsEntry("source", "snapshot");
+        assertThat(cold.get("missing")).isEqualTo(List.of("NOPEUSDT"));
+        assertThat(prices(warm).keySet()).isEqualTo(prices(cold).keySet());
+        assertThat(warm.get("missing")).isEqualTo(cold.get("missing"));
+        // 잘못된 심볼이 업스트림 일괄 조회에 실리지 않고, 첫 스냅샷 조회는 한 번뿐
+        verify(binanceApiService, never()).getSymbolPrices(any());
+        verify(binanceApiService, times(1)).get24hrTickerRaw();
+    }
+
+    @Test
+    void fallsBackToUpstreamBatchWhenFirstSnapshotFails() {
+        when(binanceApiService.get24hrTickerRaw()).thenReturn(Mono.error(new IllegalStateException("timeout")));
+
+        Map<String, Object> response = service.getPrices(List.of("BTCUSDT", "ETHUSDT")).block();
+
+        assertThat(prices(response)).containsOnlyKeys("BTCUSDT", "ETHUSDT");
+        assertThat(prices(response).get("ETHUSDT")).containsEntry("source", "upstream");
+        assertThat(response.get("missing")).isEqualTo(List.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, Object>> prices(Map<String, Object> response) {
+        return (Map<String, Map<String, Object>>) response.get("prices");
+    }
+}
@@ -0,0 +1,212 @@
+package com.binancetrader.service;
+
+import com.binancetrader.model.Order;
+import com.binancetrader.model.TradingStrategy;
+import com.binancetrader.model.User;
+import com.binancetrader.repository.OrderRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 스텁 주문 API 로 결과 미확인 주문의 재확인/정리와 상태 변환 확인
+ */
+class OrderExecutionServiceTest {
+
+    private static final String MISSING = "{\"code\":-2013,\"msg\":\"Order does not exist.\"}";
+
+    private HttpServer server;
+    /** clientOrderId → 조회 응답 순서 (MISSING 이면 -2013, 마지막 응답은 계속 반복) */
+    private final Map<String, Deque<String>> lookups = new ConcurrentHashMap<>();
+    private final AtomicInteger submits = new AtomicInteger();
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private OrderExecutionService service;
+    private User user;
+    private TradingStrategy strategy;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v3/order", this::handleOrder);
+        server.start();
+
+        BinanceApiService binanceApiService = new BinanceApiService();
+        ReflectionTestUtils.setField(binanceApiService, "baseUrl",
+            "http://127.0.0.1:" + server.getAddress().getPort());
+
+        service = new OrderExecutionService(binanceApiService, orderRepository);
+        ReflectionTestUtils.setField(service, "liveOrders", true);
+        ReflectionTestUtils.setField(service, "orderTimeoutMs", 2_000L);
+        ReflectionTestUtils.setField(service, "hedgeDelayMs", 100L);
+        ReflectionTestUtils.setField(service, "recvWindowMs", 1_000L);
+        ReflectionTestUtils.setField(service, "maxSubmitAttempts", 2);
+        ReflectionTestUtils.setField(service, "dedupeSize", 100);
+        when(orderRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        user = new User();
+        user.setId(1L);
+        user.setBinanceApiKey("key");
+        user.setBinanceSecretKey("secret");
+        strategy = new TradingStrategy();
+        strategy.setId(7L);
+        strategy.setUser(user);
+        strategy.setSymbol("BTC/USDT");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void resumedOrderIsLookedUpUntilRecvWindowOfLastSubmitPasses() {
+        String clientOrderId = OrderExecutionService.clientOrderId(1L, 7L, "run-1",
+            Order.OrderSide.BUY, Order.OrderType.MARKET);
+        Order pending = pendingOrder(clientOrderId, LocalDateTime.now());
+        when(orderRepository.findByClientOrderId(clientOrderId)).thenReturn(Optional.of(pending));
+        // 직전 전송이 아직 도착하지 않아 처음 두 번은 없다가 나타나는 경우
+        lookups.put(clientOrderId, new ArrayDeque<>(List.of(MISSING, MISSING,
+            orderJson(clientOrderId, 555, "PENDING_NEW", "0"))));
+
+        Order order = service.placeOrder(user, strategy, Order.OrderSide.BUY, Order.OrderType.MARKET,
+            null, new BigDecimal("100"), null, "run-1");
+
+        assertThat(submits.get()).isZero();
+        assertThat(order.getBinanceOrderId()).isEqualTo("555");
+        assertThat(order.getStatus()).isEqualTo(Order.OrderStatus.NEW);
+    }
+
+    @Test
+    void resumedOrderIsResubmittedOnlyAfterRecvWindowExpires() {
+        String clientOrderId = OrderExecutionService.clientOrderId(1L, 7L, "run-2",
+            Order.OrderSide.BUY, Order.OrderType.MARKET);
+        Order pending = pendingOrder(clientOrderId, LocalDateTime.now());
+        when(orderRepository.findByClientOrderId(clientOrderId)).thenReturn(Optional.of(pending));
+        lookups.put(clientOrderId, new ArrayDeque<>(List.of(MISSING)));
+
+        long start = System.currentTimeMillis();
+        Order order = service.placeOrder(user, strategy, Order.OrderSide.BUY, Order.OrderType.MARKET,
+            null, new BigDecimal("100"), null, "run-2");
+
+        // recvWindow(1초) + 시계 오차(1초) 동안은 "없음"을 믿지 않는다
+        assertThat(System.currentTimeMillis() - start).isGreaterThanOrEqualTo(1_900L);
+        assertThat(submits.get()).isEqualTo(1);
+        assertThat(order.getStatus()).isEqualTo(Order.OrderStatus.FILLED);
+    }
+
+    @Test
+    void reconcilerConfirmsPlacedOrdersAndRejectsMissingOnes() {
+        Order placed = pendingOrder("bt-placed", LocalDateTime.now().minusMinutes(1));
+        Order missing = pendingOrder("bt-missing", LocalDateTime.now().minusMinutes(1));
+        when(orderRepository.findUnconfirmedOrders(eq(Order.OrderStatus.NEW), any()))
+            .thenReturn(List.of(placed, missing));
+        lookups.put("bt-placed", new ArrayDeque<>(List.of(orderJson("bt-placed", 901, "EXPIRED_IN_MATCH", "0"))));
+        lookups.put("bt-missing", new ArrayDeque<>(List.of(MISSING)));
+
+        service.reconcileUnconfirmedOrders();
+
+        assertThat(placed.getBinanceOrderId()).isEqualTo("901");
+        assertThat(placed.getStatus()).isEqualTo(Order.OrderStatus.EXPIRED);
+        assertThat(missing.getBinanceOrderId()).isNull();
+        assertThat(missing.getStatus()).isEqualTo(Order.OrderStatus.REJECTED);
+        assertThat(submits.get()).isZero();
+    }
+
+    @Test
+    void reconcilerSkipsTestOrders() {
+        ReflectionTestUtils.setField(service, "liveOrders", false);
+        when(orderRepository.findUnconfirmedOrders(any(), any())).thenThrow(new AssertionError("조회하면 안 됨"));
+
+        service.reconcileUnconfirmedOrders();
+    }
+
+    @Test
+    void mapsBinanceStatusesExplicitly() {
+        assertThat(Order.OrderStatus.fromBinance("PENDING_NEW")).isEqualTo(Order.OrderStatus.NEW);
+        assertThat(Order.OrderStatus.fromBinance("PENDING_CANCEL")).isEqualTo(Order.OrderStatus.NEW);
+        assertThat(Order.OrderStatus.fromBinance("EXPIRED_IN_MATCH")).isEqualTo(Order.OrderStatus.EXPIRED);
+        assertThat(Order.OrderStatus.fromBinance("PARTIALLY_FILLED")).isEqualTo(Order.OrderStatus.PARTIALLY_FILLED);
+        assertThat(Order.OrderStatus.fromBinance("SOMETHING_NEW")).isNull();
+    }
+
+    private Order pendingOrder(String clientOrderId, LocalDateTime updatedAt) {
+        Order order = new Order();
+        order.setId(1L);
+        order.setUser(user);
+        order.setStrategy(strategy);
+        order.setSymbol("BTCUSDT");
+        order.setSide(Order.OrderSide.BUY);
+        order.setType(Order.OrderType.MARKET);
+        order.setStatus(Order.OrderStatus.NEW);
+        order.setClientOrderId(clientOrderId);
+        order.setCreatedAt(updatedAt);
+        order.setUpdatedAt(updatedAt);
+        return order;
+    }
+
+    private void handleOrder(HttpExchange exchange) throws IOException {
+        String clientOrderId = queryValue(exchange, "GET".equals(exchange.getRequestMethod())
+            ? "origClientOrderId" : "newClientOrderId");
+        if ("POST".equals(exchange.getRequestMethod())) {
+            submits.incrementAndGet();
+            lookups.put(clientOrderId, new ArrayDeque<>(List.of(orderJson(clientOrderId, 777, "FILLED", "1"))));
+            respond(exchange, 200, orderJson(clientOrderId, 777, "FILLED", "1"));
+            return;
+        }
+
+        Deque<String> responses = lookups.getOrDefault(clientOrderId, new ArrayDeque<>(List.of(MISSING)));
+        String body;
+        synchronized (responses) {
+            body = responses.size() > 1 ? responses.pollFirst() : responses.peekFirst();
+        }
+        respond(exchange, MISSING.equals(body) ? 400 : 200, body);
+    }
+
+    private static String orderJson(String clientOrderId, long orderId, String status, String executedQty) {
+        return "{\"symbol\":\"BTCUSDT\",\"orderId\":" + orderId + ",\"clientOrderId\":\"" + clientOrderId
+            + "\",\"status\":\"" + status + "\",\"executedQty\":\"" + executedQty + "\"}";
+    }
+
+    private static String queryValue(HttpExchange exchange, String name) {
+        for (String pair : exchange.getRequestURI().getQuery().split("&")) {
+            String[] parts = pair.split("=", 2);
+            if (parts[0].equals(name)) {
+                return parts[1];
+            }
+        }
+        return "";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
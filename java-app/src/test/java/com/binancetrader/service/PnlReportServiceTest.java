@@ -0,0 +1,100 @@
+package com.binancetrader.service;
+
+import com.binancetrader.support.EmbeddedPostgresSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 내장 Postgres 의 fills 로 FIFO 실현 손익/수수료 집계 확인
+ */
+class PnlReportServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private long userId;
+    private PnlReportService service;
+    private long nextTradeId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(EmbeddedPostgresSupport.dataSource());
+        userId = EmbeddedPostgresSupport.resetWithUser(jdbcTemplate);
+        service = new PnlReportService(jdbcTemplate);
+        ReflectionTestUtils.setField(service, "fetchSize", 2);
+        nextTradeId = 1;
+    }
+
+    @Test
+    void matchesSellsAgainstOldestLotsFirst() {
+        fill("ETHUSDT", "2000", "1", true, "2", "USDT");
+        fill("ETHUSDT", "2200", "1", true, "2.2", "USDT");
+        fill("ETHUSDT", "2500", "1.5", false, "3.75", "USDT");
+
+        Map<String, Object> eth = symbolReport(service.generate(userId, "ETH/USDT"), "ETHUSDT");
+
+        // 1 x (2500 - 2000) + 0.5 x (2500 - 2200)
+        assertThat(eth).containsEntry("realizedPnl", "650")
+            .containsEntry("boughtQty", "2")
+            .containsEntry("soldQty", "1.5")
+            .containsEntry("openQty", "0.5")
+            .containsEntry("openCostBasis", "1100")
+            .containsEntry("unmatchedSellQty", "0")
+            .containsEntry("feesByAsset", Map.of("USDT", "7.95"));
+    }
+
+    @Test
+    void shrinksBuyLotByCommissionPaidInBaseAsset() {
+        fill("BTCUSDT", "100", "1", true, "0.001", "BTC");
+        fill("BTCUSDT", "110", "1", true, "0.11", "USDT");
+        fill("BTCUSDT", "120", "1.5", false, "0.18", "USDT");
+
+        Map<String, Object> btc = symbolReport(service.generate(userId, null), "BTCUSDT");
+
+        // 첫 매수는 0.999 만 받았으므로 매도 1.5 는 0.999 @100 + 0.501 @110 으로 맞춘다
+        assertThat(btc).containsEntry("realizedPnl", "24.99")
+            .containsEntry("boughtQty", "2")
+            .containsEntry("openQty", "0.499")
+            .containsEntry("openCostBasis", "54.89")
+            .containsEntry("unmatchedSellQty", "0")
+            .containsEntry("feesByAsset", Map.of("BTC", "0.001", "USDT", "0.29"));
+    }
+
+    @Test
+    void reportsSellsWithoutImportedBuysAsUnmatched() {
+        fill("BNBUSDT", "300", "2", false, "0.001", "BNB");
+        fill("ETHBTC", "0.05", "3", true, "0.003", "ETH");
+        fill("ETHBTC", "0.06", "1", false, "0.00006", "BTC");
+
+        Map<String, Object> report = service.generate(userId, null);
+
+        assertThat(symbolReport(report, "BNBUSDT")).containsEntry("realizedPnl", "0")
+            .containsEntry("unmatchedSellQty", "2");
+        assertThat(symbolReport(report, "ETHBTC")).containsEntry("realizedPnl", "0.01")
+            .containsEntry("openQty", "1.997");
+        assertThat(report).containsEntry("fills", 3L)
+            .containsEntry("feesByAsset", Map.of("BNB", "0.001", "BTC", "0.00006", "ETH", "0.003"));
+    }
+
+    private void fill(String symbol, String price, String qty, boolean buyer, String commission, String asset) {
+        long tradeId = nextTradeId++;
+        jdbcTemplate.update("INSERT INTO fills (user_id, symbol, trade_id, order_id, price, qty, quote_qty, "
+                + "commission, commission_asset, trade_time, is_buyer, is_maker) "
+                + "VALUES (?, ?, ?, ?, ?::numeric, ?::numeric, ?::numeric * ?::numeric, ?::numeric, ?, ?, ?, FALSE)",
+            userId, symbol, tradeId, tradeId, price, qty, price, qty, commission, asset,
+            1_700_000_000_000L + tradeId, buyer);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> symbolReport(Map<String, Object> report, String symbol) {
+        return ((List<Map<String, Object>>) report.get("symbols")).stream()
+            .filter(entry -> symbol.equals(entry.get("symbol")))
+            .findFirst()
+            .orElseThrow();
+    }
+}
@@ -0,0 +1,242 @@
+package com.binancetrader.service;
+
+import com.binancetrader.model.TradingStrategy;
+import com.binancetrader.model.User;
+import com.binancetrader.repository.TradingStrategyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 샤드 이동 중 작업 전달, 사용자 작업 레인, 전략 변경 동기화 확인
+ */
+class StrategyRuntimeServiceTest {
+
+    private final TradingStrategyRepository repository = mock(TradingStrategyRepository.class);
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private StrategyRuntimeService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new StrategyRuntimeService(repository, mock(MarketSnapshotService.class), messagingTemplate);
+        ReflectionTestUtils.setField(service, "configuredShards", 2);
+        ReflectionTestUtils.setField(service, "ioThreads", 4);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.shutdown();
+    }
+
+    @Test
+    void forwardsTasksQueuedOnSourceShardAfterUserMoves() throws Exception {
+        when(repository.findAllActiveStrategiesOfActiveUsers()).thenReturn(List.of(
+            strategy(1L, 11L, "BTCUSDT"), strategy(2L, 21L, "BNBUSDT"), strategy(3L, 31L, "ETHUSDT")));
+        service.loadAll();
+        awaitControl();
+        // 사용자 1, 3 은 0번 샤드, 2 는 1번 샤드
+
+        CountDownLatch release = new CountDownLatch(1);
+        service.dispatch(1L, () -> await(release));
+
+        // 2 가 빠지면 0번 샤드 사용자 하나가 1번으로 옮겨지지만, 0번 샤드가 막혀 있어 아직 떼어 내지 못한다
+        service.onUserActiveStatusChanged(new UserService.ActiveStatusChangedEvent(2L, false));
+        awaitControl();
+
+        List<String> ran = new CopyOnWriteArrayList<>();
+        for (String step : List.of("a", "b")) {
+            for (long userId : new long[]{1L, 3L}) {
+                service.dispatch(userId, () -> ran.add(userId + step + "@" + Thread.currentThread().getName()));
+            }
+        }
+        release.countDown();
+        awaitUntil(() -> ran.size() == 4);
+
+        long moved = ran.stream().filter(entry -> entry.endsWith("strategy-shard-1")).count();
+        assertThat(moved).isEqualTo(2);
+        String movedUser = ran.stream().filter(entry -> entry.endsWith("strategy-shard-1"))
+            .findFirst().orElseThrow().substring(0, 1);
+        assertThat(ran).filteredOn(entry -> entry.startsWith(movedUser))
+            .containsExactly(movedUser + "a@strategy-shard-1", movedUser + "b@strategy-shard-1");
+
+        List<String> after = new CopyOnWriteArrayList<>();
+        service.dispatch(Long.valueOf(movedUser), () -> after.add(Thread.currentThread().getName()));
+        awaitUntil(() -> after.size() == 1);
+        assertThat(after).containsExactly("strategy-shard-1");
+        assertThat(service.getShardStatus()).extracting(status -> status.get("strategies")).containsExactly(1, 1);
+    }
+
+    @Test
+    void blockingTasksRunInOrderPerUserWithoutHoldingOtherUsers() throws Exception {
+        List<String> ran = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        service.dispatchBlocking(1L, () -> {
+            await(release);
+            ran.add("1a");
+        });
+        service.dispatchBlocking(1L, () -> ran.add("1b"));
+        service.dispatchBlocking(2L, () -> ran.add("2a"));
+
+        awaitUntil(() -> ran.contains("2a"));
+        assertThat(ran).containsExactly("2a");
+
+        release.countDown();
+        awaitUntil(() -> ran.size() == 3);
+        assertThat(ran).containsExactly("2a", "1a", "1b");
+    }
+
+    @Test
+    void reloadsOnlyUsersWhoseStrategiesChanged() throws Exception {
+        TradingStrategy first = strategy(1L, 11L, "BTCUSDT");
+        when(repository.findAllActiveStrategiesOfActiveUsers()).thenReturn(List.of(first));
+        service.loadAll();
+        awaitControl();
+        awaitUntil(() -> totalStrategies() == 1);
+
+        TradingStrategy added = strategy(1L, 12L, "ETHUSDT");
+        when(repository.findUserIdsWithStrategyChangesSince(any())).thenReturn(List.of(1L));
+        when(repository.findActiveStrategiesOfActiveUser(1L)).thenReturn(List.of(first, added));
+        when(repository.countActiveStrategiesOfActiveUsers()).thenReturn(2L);
+        service.syncStrategyChanges();
+        awaitControl();
+
+        awaitUntil(() -> totalStrategies() == 2);
+        assertThat(service.getShardStatus()).extracting(status -> status.get("symbols")).containsExactly(2, 0);
+    }
+
+    @Test
+    void sendsSignalsOnlyToOwnersUserQueue() throws Exception {
+        when(repository.findAllActiveStrategiesOfActiveUsers()).thenReturn(List.of(strategy(1L, 11L, "BTCUSDT")));
+        service.loadAll();
+        awaitControl();
+        awaitUntil(() -> totalStrategies() == 1);
+
+        service.publishPrice("BTCUSDT", 100.0, 1L);
+        service.publishPrice("BTCUSDT", 101.5, 2L);
+
+        verify(messagingTemplate, timeout(5_000)).convertAndSendToUser(eq("user-1"), eq("/queue/strategy"), any(Object.class));
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void pricesPublishedWhileUserMovesReachTheNewShard() throws Exception {
+        when(repository.findAllActiveStrategiesOfActiveUsers()).thenReturn(List.of(
+            strategy(1L, 11L, "BTCUSDT"), strategy(2L, 21L, "BNBUSDT"), strategy(3L, 31L, "ETHUSDT")));
+        service.loadAll();
+        awaitControl();
+        awaitUntil(() -> totalStrategies() == 3);
+        service.publishPrice("BTCUSDT", 100.0, 1L);
+        service.publishPrice("ETHUSDT", 100.0, 1L);
+
+        // 0번 샤드를 막아 둔 채로 사용자 하나를 1번 샤드로 옮기고, 떼어 내기 전에 시세를 보낸다
+        CountDownLatch release = new CountDownLatch(1);
+        service.dispatch(1L, () -> await(release));
+        service.onUserActiveStatusChanged(new UserService.ActiveStatusChangedEvent(2L, false));
+        awaitControl();
+        service.publishPrice("BTCUSDT", 102.0, 2L);
+        service.publishPrice("ETHUSDT", 102.0, 2L);
+        release.countDown();
+
+        verify(messagingTemplate, timeout(5_000)).convertAndSendToUser(eq("user-1"), eq("/queue/strategy"), any(Object.class));
+        verify(messagingTemplate, timeout(5_000)).convertAndSendToUser(eq("user-3"), eq("/queue/strategy"), any(Object.class));
+        assertThat(service.getShardStatus()).extracting(status -> status.get("strategies")).containsExactly(1, 1);
+
+        // 이동이 끝난 뒤의 시세는 새 샤드로 바로 가고 한 번씩만 평가된다
+        service.publishPrice("BTCUSDT", 104.1, 3L);
+        service.publishPrice("ETHUSDT", 104.1, 3L);
+        verify(messagingTemplate, timeout(5_000).times(2)).convertAndSendToUser(eq("user-1"), eq("/queue/strategy"), any(Object.class));
+        verify(messagingTemplate, timeout(5_000).times(2)).convertAndSendToUser(eq("user-3"), eq("/queue/strategy"), any(Object.class));
+        Thread.sleep(200);
+        verify(messagingTemplate, times(4)).convertAndSendToUser(anyString(), anyString(), any(Object.class));
+    }
+
+    @Test
+    void lanesAreDroppedOnceUserIsGoneAndIdle() throws Exception {
+        when(repository.findAllActiveStrategiesOfActiveUsers()).thenReturn(List.of(strategy(1L, 11L, "BTCUSDT")));
+        service.loadAll();
+        awaitControl();
+
+        List<Long> ran = new CopyOnWriteArrayList<>();
+        service.dispatchBlocking(1L, () -> ran.add(1L));
+        service.dispatchBlocking(9L, () -> ran.add(9L));
+        awaitUntil(() -> ran.size() == 2);
+
+        // 적재되지 않은 사용자 레인은 비는 즉시 정리, 적재된 사용자 레인은 유지
+        awaitUntil(() -> !lanes().containsKey(9L));
+        assertThat(lanes()).containsOnlyKeys(1L);
+
+        service.onUserActiveStatusChanged(new UserService.ActiveStatusChangedEvent(1L, false));
+        awaitControl();
+        assertThat(lanes()).isEmpty();
+
+        service.dispatchBlocking(1L, () -> ran.add(1L));
+        awaitUntil(() -> ran.size() == 3);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Object> lanes() {
+        return (Map<Long, Object>) ReflectionTestUtils.getField(service, "lanes");
+    }
+
+    private int totalStrategies() {
+        return service.getShardStatus().stream().mapToInt(status -> (Integer) status.get("strategies")).sum();
+    }
+
+    private void awaitControl() throws Exception {
+        ExecutorService control = (ExecutorService) ReflectionTestUtils.getField(service, "control");
+        control.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    private static TradingStrategy strategy(Long userId, Long strategyId, String symbol) {
+        User user = new User();
+        user.setId(userId);
+        user.setUsername("user-" + userId);
+        TradingStrategy strategy = new TradingStrategy();
+        strategy.setId(strategyId);
+        strategy.setUser(user);
+        strategy.setSymbol(symbol);
+        strategy.setTakeProfitPercentage(BigDecimal.ONE);
+        strategy.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        return strategy;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("조건 대기 시간 초과").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
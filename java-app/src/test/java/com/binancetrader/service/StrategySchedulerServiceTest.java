@@ -0,0 +1,138 @@
+package com.binancetrader.service;
+
+import com.binancetrader.model.StrategySchedule;
+import com.binancetrader.model.TradingStrategy;
+import com.binancetrader.model.User;
+import com.binancetrader.repository.StrategyScheduleRepository;
+import com.binancetrader.repository.TradingStrategyRepository;
+import com.binancetrader.util.TimingWheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 실행 결과 기록이 실행 중의 해제/주기 변경을 되돌리지 않는지 확인
+ */
+class StrategySchedulerServiceTest {
+
+    private static final long STRATEGY_ID = 7L;
+    private static final long SCHEDULE_ID = 5L;
+
+    private final StrategyScheduleRepository scheduleRepository = mock(StrategyScheduleRepository.class);
+    private final TradingStrategyRepository strategyRepository = mock(TradingStrategyRepository.class);
+    private final StrategyExecutionService executionService = mock(StrategyExecutionService.class);
+    private StrategySchedulerService service;
+    private StrategySchedule stored;
+
+    @BeforeEach
+    void setUp() {
+        service = new StrategySchedulerService(scheduleRepository, strategyRepository, executionService);
+        ReflectionTestUtils.setField(service, "tickMs", 10L);
+        ReflectionTestUtils.setField(service, "wheelSize", 64);
+        service.init();
+
+        User user = new User();
+        user.setId(1L);
+        TradingStrategy strategy = new TradingStrategy();
+        strategy.setId(STRATEGY_ID);
+        strategy.setUser(user);
+        strategy.setType(TradingStrategy.StrategyType.DCA);
+
+        when(strategyRepository.findByIdWithUser(STRATEGY_ID)).thenReturn(Optional.of(strategy));
+        when(scheduleRepository.findByStrategyId(STRATEGY_ID)).thenAnswer(invocation -> Optional.ofNullable(stored));
+        when(scheduleRepository.findByIdWithStrategy(SCHEDULE_ID)).thenAnswer(invocation -> Optional.of(copy(stored)));
+        when(scheduleRepository.save(any())).thenAnswer(invocation -> {
+            StrategySchedule schedule = invocation.getArgument(0);
+            schedule.setId(SCHEDULE_ID);
+            stored = copy(schedule);
+            return schedule;
+        });
+        // 사용자 작업 레인 대신 호출 스레드에서 바로 실행
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(executionService).dispatch(any(), any());
+    }
+
+    @Test
+    void registersNextRunWhenRunIsRecorded() {
+        service.schedule(STRATEGY_ID, 1);
+        when(scheduleRepository.recordRun(eq(SCHEDULE_ID), eq(1L), eq(stored.getNextRunAt()), any(), any()))
+            .thenReturn(1);
+
+        fireDueTimeouts();
+
+        verify(executionService).execute(any(), anyString());
+        assertThat(service.getPendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void unscheduleDuringRunIsNotUndone() {
+        service.schedule(STRATEGY_ID, 1);
+        doAnswer(invocation -> {
+            service.unschedule(STRATEGY_ID);
+            return null;
+        }).when(executionService).execute(any(), anyString());
+        when(scheduleRepository.recordRun(any(), any(), any(), any(), any()))
+            .thenAnswer(invocation -> stored.getIsActive() ? 1 : 0);
+
+        fireDueTimeouts();
+
+        assertThat(stored.getIsActive()).isFalse();
+        assertThat(service.getPendingCount()).isZero();
+    }
+
+    @Test
+    void intervalChangedDuringRunKeepsNewRegistrationOnly() {
+        service.schedule(STRATEGY_ID, 1);
+        doAnswer(invocation -> {
+            service.schedule(STRATEGY_ID, 3600);
+            return null;
+        }).when(executionService).execute(any(), anyString());
+        // 조건부 갱신이 먼저 반영된 경우에도 재등록된 타임아웃을 덮어쓰지 않는다
+        when(scheduleRepository.recordRun(any(), any(), any(), any(), any())).thenReturn(1);
+
+        fireDueTimeouts();
+
+        assertThat(stored.getIntervalSeconds()).isEqualTo(3600L);
+        assertThat(service.getPendingCount()).isEqualTo(1);
+        fireDueTimeouts();
+        verify(executionService).execute(any(), anyString());
+    }
+
+    @Test
+    void skipsRunOfInactiveSchedule() {
+        service.schedule(STRATEGY_ID, 1);
+        stored.setIsActive(false);
+
+        fireDueTimeouts();
+
+        verify(executionService, never()).execute(any(), anyString());
+        verify(scheduleRepository, never()).recordRun(any(), any(), any(), any(), any());
+        assertThat(service.getPendingCount()).isZero();
+    }
+
+    /** 1 초 주기 회차가 만료되도록 휠을 진행 (1 시간 주기 회차는 아직) */
+    private void fireDueTimeouts() {
+        TimingWheel wheel = (TimingWheel) ReflectionTestUtils.getField(service, "wheel");
+        wheel.advanceTo(System.currentTimeMillis() + 1_500);
+    }
+
+    private static StrategySchedule copy(StrategySchedule schedule) {
+        return new StrategySchedule(schedule.getId(), schedule.getStrategy(), schedule.getIntervalSeconds(),
+            schedule.getNextRunAt(), schedule.getLastRunAt(), schedule.getRunCount(), schedule.getIsActive(),
+            schedule.getCreatedAt(), schedule.getUpdatedAt());
+    }
+}
@@ -0,0 +1,170 @@
+package com.binancetrader.service;
+
+import com.binancetrader.model.User;
+import com.binancetrader.support.EmbeddedPostgresSupport;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 스텁 myTrades 서버와 내장 Postgres 로 COPY 적재/중복 제거/이어받기 확인
+ */
+class TradeHistoryImportServiceTest {
+
+    private static final String SYMBOL = "BTCUSDT";
+
+    private HttpServer server;
+    /** 스텁이 돌려줄 수 있는 체결 수 (trade ID 0 부터) */
+    private final AtomicInteger availableTrades = new AtomicInteger();
+    /** 페이지 시작을 fromId 보다 이만큼 앞당겨 이미 받은 체결을 다시 보냄 */
+    private final AtomicInteger overlap = new AtomicInteger();
+    private final List<Long> requestedFromIds = new CopyOnWriteArrayList<>();
+    private final List<Integer> injectedStatuses = new CopyOnWriteArrayList<>();
+
+    private JdbcTemplate jdbcTemplate;
+    private long userId;
+    private TradeHistoryImportService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v3/myTrades", this::handleMyTrades);
+        server.start();
+
+        DataSource dataSource = EmbeddedPostgresSupport.dataSource();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        userId = EmbeddedPostgresSupport.resetWithUser(jdbcTemplate);
+
+        User user = new User();
+        user.setId(userId);
+        user.setBinanceApiKey("key");
+        user.setBinanceSecretKey("secret");
+        UserService userService = mock(UserService.class);
+        when(userService.findById(userId)).thenReturn(user);
+
+        BinanceApiService binanceApiService = new BinanceApiService();
+        ReflectionTestUtils.setField(binanceApiService, "baseUrl",
+            "http://127.0.0.1:" + server.getAddress().getPort());
+
+        service = new TradeHistoryImportService(binanceApiService, userService, dataSource, jdbcTemplate);
+        ReflectionTestUtils.setField(service, "concurrency", 1);
+        ReflectionTestUtils.setField(service, "weightPerMinute", 60_000);
+        ReflectionTestUtils.setField(service, "batchRows", 1000);
+        ReflectionTestUtils.setField(service, "requestTimeoutMs", 5_000L);
+        ReflectionTestUtils.setField(service, "retryBaseMs", 50L);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void copiesAllPagesAndDropsDuplicateTrades() throws Exception {
+        availableTrades.set(2500);
+        overlap.set(10);
+        injectedStatuses.add(503);
+
+        TradeHistoryImportService.ImportJob job = service.start(userId, List.of(SYMBOL));
+        awaitFinished(job);
+
+        assertThat(job.toMap()).containsEntry("completed", 1).containsEntry("failed", 0)
+            .containsEntry("imported", 2500L);
+        assertThat(countFills()).isEqualTo(2500);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(DISTINCT trade_id) FROM fills WHERE user_id = ?", Integer.class, userId)).isEqualTo(2500);
+        // 503 한 번은 백오프 후 같은 fromId 로 재시도
+        assertThat(requestedFromIds).containsExactly(0L, 0L, 1000L, 1990L);
+    }
+
+    @Test
+    void resumesAfterLastStoredTradeId() throws Exception {
+        availableTrades.set(1500);
+        awaitFinished(service.start(userId, List.of(SYMBOL)));
+        assertThat(countFills()).isEqualTo(1500);
+
+        requestedFromIds.clear();
+        availableTrades.set(2300);
+        TradeHistoryImportService.ImportJob job = service.start(userId, List.of(SYMBOL));
+        awaitFinished(job);
+
+        assertThat(requestedFromIds.get(0)).isEqualTo(1500L);
+        assertThat(job.toMap()).containsEntry("imported", 800L);
+        assertThat(countFills()).isEqualTo(2300);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT MAX(trade_id) FROM fills WHERE user_id = ?", Long.class, userId)).isEqualTo(2299L);
+    }
+
+    private int countFills() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM fills WHERE user_id = ?", Integer.class, userId);
+    }
+
+    private void handleMyTrades(HttpExchange exchange) throws IOException {
+        Map<String, String> query = new HashMap<>();
+        for (String pair : exchange.getRequestURI().getQuery().split("&")) {
+            String[] parts = pair.split("=", 2);
+            query.put(parts[0], parts[1]);
+        }
+        long fromId = Long.parseLong(query.get("fromId"));
+        int limit = Integer.parseInt(query.get("limit"));
+        requestedFromIds.add(fromId);
+
+        if (!injectedStatuses.isEmpty()) {
+            respond(exchange, injectedStatuses.remove(0), "{\"code\":-1,\"msg\":\"injected\"}");
+            return;
+        }
+
+        StringBuilder body = new StringBuilder("[");
+        long id = Math.max(0, fromId - overlap.get());
+        for (int i = 0; i < limit && id < availableTrades.get(); i++, id++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append("{\"symbol\":\"").append(query.get("symbol")).append("\",\"id\":").append(id)
+                .append(",\"orderId\":").append(id / 3).append(",\"orderListId\":-1")
+                .append(",\"price\":\"100.5\",\"qty\":\"0.01\",\"quoteQty\":\"1.005\"")
+                .append(",\"commission\":\"0.00001\",\"commissionAsset\":\"BTC\"")
+                .append(",\"time\":").append(1_700_000_000_000L + id * 1000)
+                .append(",\"isBuyer\":").append(id % 2 == 0).append(",\"isMaker\":false,\"isBestMatch\":true}");
+        }
+        respond(exchange, 200, body.append(']').toString());
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void awaitFinished(TradeHistoryImportService.ImportJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!job.isFinished()) {
+            assertThat(System.currentTimeMillis()).as("가져오기 작업 시간 초과").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.binancetrader.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * 테스트 JVM 에서 한 번만 띄우는 내장 Postgres (db/migration 을 Flyway 로 적용한 상태)
+ */
+public final class EmbeddedPostgresSupport {
+
+    private static EmbeddedPostgres postgres;
+
+    private EmbeddedPostgresSupport() {
+    }
+
+    public static synchronized DataSource dataSource() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("내장 Postgres 시작 실패", e);
+            }
+            Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // 종료 중이므로 무시
+                }
+            }));
+        }
+        return postgres.getPostgresDatabase();
+    }
+
+    /**
+     * 체결/사용자 데이터를 비우고 API 키가 있는 사용자 한 명을 만들어 ID 반환
+     */
+    public static long resetWithUser(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("TRUNCATE users RESTART IDENTITY CASCADE");
+        return jdbcTemplate.queryForObject("INSERT INTO users "
+            + "(username, password, email, binance_api_key, binance_secret_key, is_active, created_at) "
+            + "VALUES ('tester', 'x', 'tester@example.com', 'key', 'secret', TRUE, NOW()) RETURNING id", Long.class);
+    }
+}
@@ -0,0 +1,88 @@
+package com.binancetrader.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KlineFileCodecTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long START = 1_704_067_200_000L; // 2024-01-01T00:00Z
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripKeepsEveryColumn() throws IOException {
+        Random random = new Random(42);
+        List<List<Object>> rows = new ArrayList<>();
+        long openTime = START;
+        BigDecimal price = new BigDecimal("42000.12");
+        for (int i = 0; i < 5_000; i++) {
+            // 가끔 봉이 빠진 구간도 delta-of-delta 로 복원되어야 한다
+            openTime += random.nextInt(50) == 0 ? MINUTE * (2 + random.nextInt(5)) : MINUTE;
+            price = price.add(BigDecimal.valueOf(random.nextInt(2001) - 1000, 2)).max(new BigDecimal("0.01"));
+            rows.add(row(openTime, price, BigDecimal.valueOf(random.nextInt(10_000_000), 8), random.nextInt(5000)));
+        }
+        // 자릿수가 큰 값과 0 이 섞여도 컬럼 scale 안에서 그대로 복원
+        rows.add(row(openTime + MINUTE, new BigDecimal("0.00000001"), new BigDecimal("123456789.12345678"), 0));
+
+        KlineSeries series = KlineSeries.fromRows("BTCUSDT", MINUTE, openTime + 2 * MINUTE, rows);
+        Path path = dir.resolve("BTCUSDT").resolve("2024-01.klc");
+        KlineFileCodec.write(path, series);
+        KlineSeries read = KlineFileCodec.read(path);
+
+        assertThat(read.getSymbol()).isEqualTo("BTCUSDT");
+        assertThat(read.getIntervalMs()).isEqualTo(MINUTE);
+        assertThat(read.getCoverageEndMs()).isEqualTo(series.getCoverageEndMs());
+        assertThat(read.size()).isEqualTo(rows.size());
+        assertThat(read.getOpenTimes()).containsExactly(series.getOpenTimes());
+        assertThat(read.getTradeCounts()).containsExactly(series.getTradeCounts());
+        for (int c = 0; c < KlineSeries.DECIMAL_COLUMNS; c++) {
+            assertThat(read.getScale(c)).isEqualTo(series.getScale(c));
+            assertThat(read.getColumn(c)).containsExactly(series.getColumn(c));
+        }
+        assertThat(read.getValue(KlineSeries.CLOSE, 0)).isEqualTo(Double.parseDouble(rows.get(0).get(4).toString()));
+        assertThat(KlineFileCodec.readCoverageEnd(path)).isEqualTo(series.getCoverageEndMs());
+        assertThat(Files.exists(path.resolveSibling("2024-01.klc.tmp"))).isFalse();
+    }
+
+    @Test
+    void emptySeriesRoundTrips() throws IOException {
+        KlineSeries series = KlineSeries.fromRows("ETHUSDT", MINUTE, START, List.of());
+        Path path = dir.resolve("empty.klc");
+        KlineFileCodec.write(path, series);
+
+        KlineSeries read = KlineFileCodec.read(path);
+        assertThat(read.size()).isZero();
+        assertThat(read.getCoverageEndMs()).isEqualTo(START);
+    }
+
+    @Test
+    void rejectsFilesWithoutMagic() throws IOException {
+        Path path = dir.resolve("broken.klc");
+        Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+        assertThatThrownBy(() -> KlineFileCodec.read(path)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> KlineFileCodec.readCoverageEnd(path)).isInstanceOf(IOException.class);
+    }
+
+    /**
+     * 바이낸스 kline 응답 한 행 [openTime, open, high, low, close, volume, closeTime, quoteVolume, trades, takerBase, takerQuote, ignore]
+     */
+    static List<Object> row(long openTime, BigDecimal close, BigDecimal volume, int trades) {
+        return List.of(openTime, close.toPlainString(), close.add(BigDecimal.ONE).toPlainString(),
+            close.toPlainString(), close.toPlainString(), volume.toPlainString(), openTime + MINUTE - 1,
+            volume.multiply(close).toPlainString(), trades, volume.toPlainString(), "0", "0");
+    }
+}
@@ -0,0 +1,63 @@
+package com.binancetrader.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 다운샘플링 결과 크기, 양 끝점 보존, 짧은 입력 그대로 반환 확인
+ */
+class LttbTest {
+
+    @Test
+    void keepsFirstAndLastAndReturnsExactlyThresholdPoints() {
+        Random random = new Random(7);
+        for (int length = 4; length <= 300; length += 7) {
+            long[] x = new long[length];
+            double[] y = new double[length];
+            for (int i = 0; i < length; i++) {
+                x[i] = 1_000L * i;
+                y[i] = 100 + random.nextGaussian();
+            }
+
+            for (int threshold = 3; threshold < length; threshold++) {
+                int[] selected = Lttb.downsample(x, y, threshold);
+
+                assertThat(selected).hasSize(threshold);
+                assertThat(selected[0]).isZero();
+                assertThat(selected[threshold - 1]).isEqualTo(length - 1);
+                for (int i = 1; i < threshold; i++) {
+                    assertThat(selected[i]).isGreaterThan(selected[i - 1]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void inputNotLongerThanThresholdIsReturnedUnchanged() {
+        long[] x = {10, 20, 30, 40, 50};
+        double[] y = {1, 5, 2, 8, 3};
+
+        assertThat(Lttb.downsample(x, y, 5)).containsExactly(0, 1, 2, 3, 4);
+        assertThat(Lttb.downsample(x, y, 100)).containsExactly(0, 1, 2, 3, 4);
+        // 3 미만이면 양 끝점만으로는 모양을 잃으므로 전체
+        assertThat(Lttb.downsample(x, y, 2)).containsExactly(0, 1, 2, 3, 4);
+        assertThat(Lttb.downsample(new long[0], new double[0], 10)).isEmpty();
+    }
+
+    @Test
+    void keepsIsolatedSpike() {
+        int length = 200;
+        long[] x = new long[length];
+        double[] y = new double[length];
+        for (int i = 0; i < length; i++) {
+            x[i] = i;
+            y[i] = 100;
+        }
+        y[137] = 150;
+
+        assertThat(Lttb.downsample(x, y, 10)).contains(137);
+    }
+}
@@ -0,0 +1,96 @@
+package com.binancetrader.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 용량 초과 시 순환 덮어쓰기와 구간 조회 경계 확인
+ */
+class PriceRingBufferTest {
+
+    @Test
+    void overwritesOldestOnceFull() {
+        PriceRingBuffer buffer = new PriceRingBuffer(4);
+        for (int i = 1; i <= 6; i++) {
+            assertThat(buffer.append(i * 10L, i)).isTrue();
+        }
+
+        assertThat(buffer.size()).isEqualTo(4);
+        assertThat(buffer.capacity()).isEqualTo(4);
+        PriceRingBuffer.Range range = buffer.copyRange(Long.MIN_VALUE, Long.MAX_VALUE - 1);
+        assertThat(range.timestamps()).containsExactly(30, 40, 50, 60);
+        assertThat(range.prices()).containsExactly(3, 4, 5, 6);
+    }
+
+    @Test
+    void rangeQueriesAreInclusiveAndSpanThePhysicalWrap() {
+        // 용량 5 에 8 개 - 40, 50 은 배열 끝에, 60, 70, 80 은 배열 앞에 있다
+        PriceRingBuffer buffer = new PriceRingBuffer(5);
+        for (int i = 1; i <= 8; i++) {
+            buffer.append(i * 10L, i);
+        }
+
+        PriceRingBuffer.Range spanning = buffer.copyRange(45, 70);
+        assertThat(spanning.timestamps()).containsExactly(50, 60, 70);
+        assertThat(spanning.prices()).containsExactly(5, 6, 7);
+
+        assertThat(buffer.copyRange(40, 80).timestamps()).containsExactly(40, 50, 60, 70, 80);
+        assertThat(buffer.copyRange(60, 60).timestamps()).containsExactly(60);
+        assertThat(buffer.copyRange(61, 69).size()).isZero();
+        // 덮어쓴 구간과 아직 없는 구간
+        assertThat(buffer.copyRange(0, 39).size()).isZero();
+        assertThat(buffer.copyRange(81, 1_000).size()).isZero();
+        assertThat(buffer.copyRange(70, 60).size()).isZero();
+    }
+
+    @Test
+    void ignoresOutOfOrderAndDuplicateTimestamps() {
+        PriceRingBuffer buffer = new PriceRingBuffer(3);
+        assertThat(buffer.append(100, 1)).isTrue();
+        assertThat(buffer.append(100, 2)).isFalse();
+        assertThat(buffer.append(90, 3)).isFalse();
+        assertThat(buffer.append(110, 4)).isTrue();
+
+        PriceRingBuffer.Range range = buffer.copyRange(0, 1_000);
+        assertThat(range.timestamps()).containsExactly(100, 110);
+        assertThat(range.prices()).containsExactly(1, 4);
+    }
+
+    @Test
+    void matchesReferenceListForRandomRanges() {
+        Random random = new Random(11);
+        int capacity = 17;
+        PriceRingBuffer buffer = new PriceRingBuffer(capacity);
+        List<Long> kept = new ArrayList<>();
+        long timestamp = 0;
+
+        for (int step = 0; step < 500; step++) {
+            timestamp += 1 + random.nextInt(5);
+            buffer.append(timestamp, timestamp * 0.5);
+            kept.add(timestamp);
+            if (kept.size() > capacity) {
+                kept.remove(0);
+            }
+
+            long from = timestamp - random.nextInt(120);
+            long to = from + random.nextInt(60);
+            List<Long> expected = new ArrayList<>();
+            for (long entry : kept) {
+                if (entry >= from && entry <= to) {
+                    expected.add(entry);
+                }
+            }
+
+            PriceRingBuffer.Range range = buffer.copyRange(from, to);
+            assertThat(range.timestamps()).containsExactly(expected.stream().mapToLong(Long::longValue).toArray());
+            for (int i = 0; i < range.size(); i++) {
+                assertThat(range.prices()[i]).isEqualTo(range.timestamps()[i] * 0.5);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.binancetrader.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestWeightLimiterTest {
+
+    @Test
+    void waitsForRefillOnceBudgetIsSpent() throws InterruptedException {
+        // 분당 6000 = 10ms 당 1
+        RequestWeightLimiter limiter = new RequestWeightLimiter(6000);
+        limiter.acquire(6000);
+
+        long start = System.nanoTime();
+        limiter.acquire(20);
+        long waitedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(waitedMs).isBetween(150L, 1_000L);
+    }
+
+    @Test
+    void pauseBlocksUntilRetryAfterAndDrainsBudget() throws InterruptedException {
+        RequestWeightLimiter limiter = new RequestWeightLimiter(60_000);
+        limiter.pause(300);
+
+        long start = System.nanoTime();
+        limiter.acquire(1);
+        long waitedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(waitedMs).isGreaterThanOrEqualTo(290L);
+    }
+
+    @Test
+    void rejectsWeightAboveBudget() {
+        RequestWeightLimiter limiter = new RequestWeightLimiter(10);
+        assertThatThrownBy(() -> limiter.acquire(11)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
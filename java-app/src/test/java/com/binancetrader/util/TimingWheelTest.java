@@ -0,0 +1,170 @@
+package com.binancetrader.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 가짜 시계(advanceTo 에 넘기는 시각)로 틱 경계, 상위 휠 캐스케이드, 취소 확인
+ */
+class TimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final int SIZE = 8;
+    /** 틱 경계가 아닌 시작 시각 - 시계는 1000 으로 내림된다 */
+    private static final long START = 1_003;
+
+    /** (만료된 작업, 전달된 시점의 가짜 시각) */
+    private final List<Fired> fired = new ArrayList<>();
+    private long now;
+    private TimingWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        now = START;
+        wheel = new TimingWheel(TICK, SIZE, START, timeout -> fired.add(new Fired(timeout, now)));
+    }
+
+    @Test
+    void firesOnFirstTickBoundaryAtOrAfterExpiration() {
+        wheel.schedule(1_025, "a");
+        wheel.schedule(1_030, "b");
+
+        advanceTo(1_029);
+        assertThat(fired).isEmpty();
+
+        advanceTo(1_030);
+        assertThat(attachments()).containsExactly("a", "b");
+        assertThat(fired).allSatisfy(entry -> assertThat(entry.at()).isEqualTo(1_030));
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cascadesFromOverflowWheelsAtExactDeadline() {
+        // 1 단계 80ms, 2 단계 640ms, 3 단계 5120ms 범위를 모두 지나도록 배치
+        long[] expirations = {1_050, 1_079, 1_080, 1_081, 1_700, 1_640, 6_119, 6_120, 9_999, 45_001};
+        for (long expiration : expirations) {
+            wheel.schedule(expiration, expiration);
+        }
+        assertThat(wheel.size()).isEqualTo(expirations.length);
+
+        advanceTickByTick(50_000);
+
+        assertThat(fired).hasSize(expirations.length);
+        assertThat(fired).allSatisfy(entry -> assertThat(entry.at()).isEqualTo(deadline(entry.timeout())));
+        assertThat(fired).extracting(entry -> entry.at()).isSorted();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void randomExpirationsFireExactlyOnceAtTheirDeadline() {
+        Random random = new Random(42);
+        int count = 2_000;
+        for (int i = 0; i < count; i++) {
+            wheel.schedule(START + 1 + random.nextInt(30_000), i);
+        }
+
+        advanceTickByTick(START + 31_000);
+
+        assertThat(fired).hasSize(count);
+        assertThat(fired).extracting(entry -> entry.timeout().getAttachment()).doesNotHaveDuplicates();
+        assertThat(fired).allSatisfy(entry -> assertThat(entry.at()).isEqualTo(deadline(entry.timeout())));
+    }
+
+    @Test
+    void largeJumpDeliversInDeadlineOrder() {
+        wheel.schedule(8_000, "late");
+        wheel.schedule(1_200, "middle");
+        wheel.schedule(1_015, "early");
+
+        advanceTo(20_000);
+
+        assertThat(attachments()).containsExactly("early", "middle", "late");
+    }
+
+    @Test
+    void cancelledTimeoutsNeverFire() {
+        TimingWheel.Timeout near = wheel.schedule(1_040, "near");
+        TimingWheel.Timeout far = wheel.schedule(5_000, "far");
+        wheel.schedule(5_000, "kept");
+        assertThat(wheel.size()).isEqualTo(3);
+
+        assertThat(near.cancel()).isTrue();
+        assertThat(near.cancel()).isFalse();
+        // 5000 은 상위 휠에 있다가 4960 틱에 최하위 휠로 내려온다 - 내려온 뒤에 취소
+        advanceTickByTick(4_990);
+        assertThat(far.cancel()).isTrue();
+        assertThat(near.isCancelled()).isTrue();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        advanceTickByTick(6_000);
+
+        assertThat(attachments()).containsExactly("kept");
+        assertThat(fired.get(0).timeout().cancel()).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void alreadyExpiredTimeoutsAreDispatchedImmediately() {
+        advanceTo(2_000);
+
+        wheel.schedule(1_500, "past");
+        wheel.schedule(2_000, "now");
+        assertThat(attachments()).containsExactly("past", "now");
+        assertThat(wheel.size()).isZero();
+
+        // 현재 틱 바로 다음은 다음 틱까지 기다린다
+        wheel.schedule(2_001, "next");
+        assertThat(fired).hasSize(2);
+        advanceTo(2_009);
+        assertThat(fired).hasSize(2);
+        advanceTo(2_010);
+        assertThat(attachments()).containsExactly("past", "now", "next");
+    }
+
+    @Test
+    void reschedulingFromDispatcherLandsOnLaterTick() {
+        List<Long> runs = new ArrayList<>();
+        TimingWheel periodic = new TimingWheel(TICK, SIZE, START, timeout -> {
+            runs.add(now);
+            if (runs.size() < 5) {
+                // 드라이버 스레드에서 다시 등록 (StrategySchedulerService 처럼)
+                ((TimingWheel) timeout.getAttachment()).schedule(now + 300, timeout.getAttachment());
+            }
+        });
+        periodic.schedule(1_100, periodic);
+
+        for (now = 1_000; now <= 3_000; now += TICK) {
+            periodic.advanceTo(now);
+        }
+
+        assertThat(runs).containsExactly(1_100L, 1_400L, 1_700L, 2_000L, 2_300L);
+    }
+
+    private void advanceTo(long timeMs) {
+        now = timeMs;
+        wheel.advanceTo(timeMs);
+    }
+
+    private void advanceTickByTick(long untilMs) {
+        for (long time = 1_000 + TICK; time <= untilMs; time += TICK) {
+            advanceTo(time);
+        }
+    }
+
+    private List<Object> attachments() {
+        return fired.stream().map(entry -> entry.timeout().getAttachment()).toList();
+    }
+
+    private static long deadline(TimingWheel.Timeout timeout) {
+        return Math.floorDiv(timeout.getExpirationMs() + TICK - 1, TICK) * TICK;
+    }
+
+    private record Fired(TimingWheel.Timeout timeout, long at) {
+    }
+}
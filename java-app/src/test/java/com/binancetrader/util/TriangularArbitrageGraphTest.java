@@ -0,0 +1,123 @@
+package com.binancetrader.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 고정된 작은 거래소 정보로 순환 열거와 환율 x 수수료 곱 확인
+ */
+class TriangularArbitrageGraphTest {
+
+    private static final double FEE_RATE = 0.001;
+    private static final double FEE_MULTIPLIER = Math.pow(1 - FEE_RATE, 3);
+
+    /** BTC/USDT/ETH/BNB 는 서로 모두 연결 (삼각형 4개), XRP 는 USDT 하고만 연결 */
+    private static Map<String, String[]> exchange() {
+        Map<String, String[]> pairs = new LinkedHashMap<>();
+        pairs.put("BTCUSDT", new String[]{"BTC", "USDT"});
+        pairs.put("ETHUSDT", new String[]{"ETH", "USDT"});
+        pairs.put("ETHBTC", new String[]{"ETH", "BTC"});
+        pairs.put("BNBUSDT", new String[]{"BNB", "USDT"});
+        pairs.put("BNBBTC", new String[]{"BNB", "BTC"});
+        pairs.put("BNBETH", new String[]{"BNB", "ETH"});
+        pairs.put("XRPUSDT", new String[]{"XRP", "USDT"});
+        // 같은 자산 쌍의 두 번째 심볼은 무시된다
+        pairs.put("USDTBTC", new String[]{"USDT", "BTC"});
+        return pairs;
+    }
+
+    @Test
+    void enumeratesBothDirectionsOfEveryTriangle() {
+        TriangularArbitrageGraph graph = TriangularArbitrageGraph.build(exchange());
+
+        assertThat(graph.getSymbolCount()).isEqualTo(7);
+        assertThat(graph.getAssetCount()).isEqualTo(5);
+        assertThat(graph.getCycleCount()).isEqualTo(8);
+        assertThat(graph.indexOf("USDTBTC")).isEqualTo(-1);
+
+        Set<List<String>> paths = new HashSet<>();
+        for (int cycle = 0; cycle < graph.getCycleCount(); cycle++) {
+            List<String> path = graph.pathOf(cycle);
+            assertThat(path).hasSize(4);
+            assertThat(path.get(3)).isEqualTo(path.get(0));
+            assertThat(new HashSet<>(path.subList(0, 3))).hasSize(3).doesNotContain("XRP");
+            paths.add(path);
+        }
+        assertThat(paths).hasSize(8);
+        for (List<String> path : paths) {
+            List<String> reversed = new ArrayList<>(path);
+            Collections.reverse(reversed);
+            assertThat(paths).contains(reversed);
+        }
+
+        // 심볼마다 자신을 지나는 순환만 다시 계산 (K4 의 각 변은 삼각형 2개 = 순환 4개)
+        assertThat(graph.update(graph.indexOf("ETHBTC"), 0.06, 0.06, FEE_MULTIPLIER, 0, (c, r) -> { })).isEqualTo(4);
+        assertThat(graph.update(graph.indexOf("XRPUSDT"), 0.5, 0.5, FEE_MULTIPLIER, 0, (c, r) -> { })).isZero();
+    }
+
+    @Test
+    void multipliesLegRatesAndFeesAroundTheCycle() {
+        TriangularArbitrageGraph graph = TriangularArbitrageGraph.build(exchange());
+        List<Integer> found = new ArrayList<>();
+        List<Double> rates = new ArrayList<>();
+        TriangularArbitrageGraph.OpportunityListener listener = (cycle, netProfitRate) -> {
+            found.add(cycle);
+            rates.add(netProfitRate);
+        };
+
+        graph.update(graph.indexOf("BTCUSDT"), 50_000, 50_010, FEE_MULTIPLIER, 0.0005, listener);
+        graph.update(graph.indexOf("ETHUSDT"), 3_000, 3_001, FEE_MULTIPLIER, 0.0005, listener);
+        // 세 구간 호가가 모두 있어야 순환 환율이 0 이 아니다
+        assertThat(found).isEmpty();
+        graph.update(graph.indexOf("ETHBTC"), 0.0605, 0.0606, FEE_MULTIPLIER, 0.0005, listener);
+
+        // BTC 매도(bid) → ETH 매수(1/ask) → ETH 를 BTC 로 매도(bid) 방향만 수익
+        double gross = 50_000 / 3_001.0 * 0.0605;
+        assertThat(found).hasSize(1);
+        int cycle = found.get(0);
+        assertThat(graph.grossRate(cycle)).isCloseTo(gross, within(1e-12));
+        assertThat(rates.get(0)).isCloseTo(gross * FEE_MULTIPLIER - 1, within(1e-12));
+        assertThat(graph.pathOf(cycle)).containsExactly("BTC", "USDT", "ETH", "BTC");
+        assertThat(graph.legsOf(cycle)).extracting(leg -> leg.get("symbol") + " " + leg.get("side") + " " + leg.get("price"))
+            .containsExactly("BTCUSDT SELL 50000.0", "ETHUSDT BUY 3001.0", "ETHBTC SELL 0.0605");
+
+        // 반대 방향은 1/50010 x 1/0.0606 x 3000 < 1
+        int reverse = reverseOf(graph, cycle);
+        assertThat(graph.grossRate(reverse)).isCloseTo(3_000 / (50_010 * 0.0606), within(1e-12));
+    }
+
+    @Test
+    void clearDropsQuotesSoNoCycleHasARate() {
+        TriangularArbitrageGraph graph = TriangularArbitrageGraph.build(exchange());
+        graph.update(graph.indexOf("BTCUSDT"), 50_000, 50_010, FEE_MULTIPLIER, 0, (c, r) -> { });
+        graph.update(graph.indexOf("ETHUSDT"), 3_000, 3_001, FEE_MULTIPLIER, 0, (c, r) -> { });
+        graph.update(graph.indexOf("ETHBTC"), 0.0605, 0.0606, FEE_MULTIPLIER, 0, (c, r) -> { });
+
+        graph.clear();
+
+        for (int cycle = 0; cycle < graph.getCycleCount(); cycle++) {
+            assertThat(graph.grossRate(cycle)).isZero();
+        }
+    }
+
+    private static int reverseOf(TriangularArbitrageGraph graph, int cycle) {
+        List<String> reversed = new ArrayList<>(graph.pathOf(cycle));
+        Collections.reverse(reversed);
+        for (int other = 0; other < graph.getCycleCount(); other++) {
+            if (graph.pathOf(other).equals(reversed)) {
+                return other;
+            }
+        }
+        throw new AssertionError("반대 방향 순환 없음");
+    }
+}
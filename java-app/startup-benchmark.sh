@@ -0,0 +1,47 @@
+#!/bin/bash
+
+# 기동 시간 벤치마크 - JVM 시작부터 첫 시세 발행(time-to-first-tick-published)까지 측정
+# 사전 준비: mvn -Pfast-startup clean package (DB 연결 환경 변수 설정 필요)
+# 사용법: ./startup-benchmark.sh [반복 횟수]
+
+RUNS=${1:-5}
+RUN_TIMEOUT=${RUN_TIMEOUT:-120}
+APP_DIR="$(cd "$(dirname "$0")" && pwd)/target/app"
+FAT_JAR="$(cd "$(dirname "$0")" && pwd)/target/binance-trading-app-1.0.0.jar"
+COMMON_ARGS="--spring.profiles.active=production --startup.exit-after-first-tick=true"
+
+if [ ! -f "$APP_DIR/application.jsa" ] || [ ! -f "$FAT_JAR" ]; then
+    echo "빌드 결과물이 없습니다. 먼저 mvn -Pfast-startup clean package 를 실행하세요."
+    exit 1
+fi
+
+# $1: 라벨, 나머지: 실행 명령
+measure() {
+    local label=$1
+    shift
+    local total=0
+    local count=0
+    
+    for i in $(seq 1 "$RUNS"); do
+        local ms
+        ms=$(timeout "$RUN_TIMEOUT" "$@" $COMMON_ARGS 2>&1 | grep -o 'time-to-first-tick-published=[0-9]*' | cut -d= -f2)
+        if [ -z "$ms" ]; then
+            echo "[$label] 실행 $i: 측정 실패 (첫 시세 발행 로그 없음)"
+            continue
+        fi
+        echo "[$label] 실행 $i: ${ms}ms"
+        total=$((total + ms))
+        count=$((count + 1))
+    done
+    
+    if [ "$count" -gt 0 ]; then
+        echo "[$label] 평균 time-to-first-tick-published: $((total / count))ms (${count}/${RUNS}회)"
+    fi
+}
+
+echo "기동 시간 벤치마크 (${RUNS}회 반복)"
+
+measure "baseline" java -jar "$FAT_JAR"
+
+cd "$APP_DIR" || exit 1
+measure "aot+cds" java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar application.jar